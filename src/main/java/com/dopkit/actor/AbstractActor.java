@@ -1,18 +1,23 @@
 package com.dopkit.actor;
 
-import com.dopkit.dispatch.ClassDispatchRequest;
 import com.dopkit.dispatch.CommandDispatchRequest;
 import com.dopkit.dispatch.DispatchEngine;
 import com.dopkit.dispatch.DispatchRequest;
 import com.dopkit.dispatch.DispatchResult;
-import com.dopkit.dispatch.EnumDispatchRequest;
 import com.dopkit.dispatch.RouteKeyDispatchRequest;
 import com.dopkit.dispatch.RouteKeyToEnumDispatchRequest;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Dop Actor 抽象基类
  * 提供4种内置分发机制的实现
  *
+ * call* 在调用者线程上同步执行handler；tell* / ask* 把消息放入本Actor的有界邮箱，
+ * 由 {@link #createMailboxConfig()} 指定的 executor 逐条处理，同一时刻只有一个线程执行本Actor的handler。
+ * 同一个Actor混用 call* 与 tell* / ask* 时，该保证不再成立。
+ *
  * @param <TResult> 结果类型
  * @author kongweixian
  */
@@ -20,10 +25,35 @@ public abstract class AbstractActor<TResult> implements IActor<TResult> {
 
     private ActorRoute<TResult> route = null;
 
+    private volatile ActorMailbox<TResult> mailbox = null;
+
     /**
-     * 子类实现此方法来配置路由
+     * 子类覆盖此方法来配置路由
+     * 默认实现注册本类上标注了 {@link ActorHandler} 的方法：编译期生成了 {@link ActorRouteRegistrar} 时直接使用，
+     * 否则反射扫描（此时handler方法需为public）。需要默认处理器等额外配置时请覆盖此方法并调用 matchAnnotated(this)。
      */
-    protected abstract ActorRoute<TResult> createActorRoute();
+    protected ActorRoute<TResult> createActorRoute() {
+        return ActorRouteBuilder.<TResult>create()
+                .matchAnnotated(this)
+                .build();
+    }
+
+    /**
+     * 子类覆盖此方法来配置邮箱（容量、调度器、throughput），第一次 tell/ask 时调用一次
+     * 默认在 {@link ActorDispatcher#defaultDispatcher()} 上执行；与 createActorRoute() 相互独立
+     */
+    protected ActorMailboxConfig createMailboxConfig() {
+        return ActorMailboxConfig.create();
+    }
+
+    /**
+     * tell 的消息处理失败时调用（ask 的失败由返回的 future 传递）
+     * 默认交给当前线程的 UncaughtExceptionHandler
+     */
+    protected void onTellFailure(Object input, Throwable error) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+    }
 
     /**
      * 创建错误结果（子类可覆盖）
@@ -39,6 +69,24 @@ public abstract class AbstractActor<TResult> implements IActor<TResult> {
         }
     }
 
+    private ActorMailbox<TResult> mailbox() {
+        ActorMailbox<TResult> current = mailbox;
+        if (current == null) {
+            synchronized (this) {
+                current = mailbox;
+                if (current == null) {
+                    if (route == null) {
+                        initRoute();
+                    }
+                    // 优先级按路由目标确定，邮箱需要在路由之后创建
+                    current = new ActorMailbox<>(this, createMailboxConfig(), route.getPriorities());
+                    mailbox = current;
+                }
+            }
+        }
+        return current;
+    }
+
     /**
      * 分发机制1: By Class类型分发
      */
@@ -47,9 +95,10 @@ public abstract class AbstractActor<TResult> implements IActor<TResult> {
         if (route == null) {
             initRoute();
         }
-        DispatchResult<TResult> result = dispatch(new ClassDispatchRequest<>(input));
-        if (result.isHandled()) {
-            return result.getResult();
+        DispatchEngine<TResult> engine = route.getDispatchEngine();
+        Object result = engine == null ? DispatchEngine.NOT_HANDLED : engine.dispatchClass(input);
+        if (result != DispatchEngine.NOT_HANDLED) {
+            return cast(result);
         }
         Class<?> inputClass = input == null ? Void.class : input.getClass();
         return createErrorResult("No handler registered for input type: " + inputClass.getName());
@@ -58,6 +107,7 @@ public abstract class AbstractActor<TResult> implements IActor<TResult> {
     /**
      * 分发机制2: By RouteKey字符串分发
      * 分发机制4: By RouteKey with Enum fallback
+     * 由 build() 编译的融合解析器一次查找得到最终handler或兜底处理器
      */
     @Override
     public <TOutput> TResult callByRouteKey(String routeKey, Object input) {
@@ -65,6 +115,16 @@ public abstract class AbstractActor<TResult> implements IActor<TResult> {
             initRoute();
         }
 
+        RouteKeyResolver<TResult> resolver = route.getRouteKeyResolver();
+        if (resolver != null) {
+            Object result = resolver.dispatch(routeKey, input);
+            if (result != DispatchEngine.NOT_HANDLED) {
+                return cast(result);
+            }
+            return createErrorResult("No handler registered for routeKey: " + routeKey);
+        }
+
+        // 未经 ActorRouteBuilder 构建的路由：逐个策略分发
         DispatchResult<TResult> result =
                 dispatch(RouteKeyDispatchRequest.direct(routeKey, input));
         if (result.isHandled()) {
@@ -92,9 +152,10 @@ public abstract class AbstractActor<TResult> implements IActor<TResult> {
         if (route == null) {
             initRoute();
         }
-        DispatchResult<TResult> result = dispatch(new EnumDispatchRequest<>(routeEnum, input));
-        if (result.isHandled()) {
-            return result.getResult();
+        DispatchEngine<TResult> engine = route.getDispatchEngine();
+        Object result = engine == null ? DispatchEngine.NOT_HANDLED : engine.dispatchEnum(routeEnum, input);
+        if (result != DispatchEngine.NOT_HANDLED) {
+            return cast(result);
         }
         return createErrorResult("No handler registered for enum: " + routeEnum);
     }
@@ -127,6 +188,179 @@ public abstract class AbstractActor<TResult> implements IActor<TResult> {
         return createErrorResult("No handler found for command: " + command);
     }
 
+    /**
+     * 异步分发机制1: By Class类型分发，不等待结果
+     *
+     * @throws MailboxFullException 邮箱已满且溢出策略为 FAIL（BLOCK 超时）
+     */
+    public void tell(Object input) {
+        send(new ActorMessage<>(ActorMessage.Kind.CLASS, null, input, null));
+    }
+
+    /**
+     * 异步分发机制2/4: By RouteKey分发，不等待结果
+     *
+     * @throws MailboxFullException 邮箱已满且溢出策略为 FAIL（BLOCK 超时）
+     */
+    public void tellByRouteKey(String routeKey, Object input) {
+        send(new ActorMessage<>(ActorMessage.Kind.ROUTE_KEY, routeKey, input, null));
+    }
+
+    /**
+     * 异步分发机制3: By 枚举分发，不等待结果
+     *
+     * @throws MailboxFullException 邮箱已满且溢出策略为 FAIL（BLOCK 超时）
+     */
+    public <E extends Enum<E>> void tellByEnum(E routeEnum, Object input) {
+        send(new ActorMessage<>(ActorMessage.Kind.ENUM, routeEnum, input, null));
+    }
+
+    /**
+     * 异步分发机制5: By Command分发，不等待结果
+     *
+     * @throws MailboxFullException 邮箱已满且溢出策略为 FAIL（BLOCK 超时）
+     */
+    public void tellByCommand(String command, Object input) {
+        send(new ActorMessage<>(ActorMessage.Kind.COMMAND, command, input, null));
+    }
+
+    /**
+     * 异步分发机制1: By Class类型分发
+     *
+     * @return handler结果（未找到handler时为 createErrorResult 的结果）；handler抛出异常时异常完成，
+     * 消息因邮箱已满未被处理时以 {@link MailboxFullException} 异常完成
+     */
+    public CompletableFuture<TResult> ask(Object input) {
+        return request(ActorMessage.Kind.CLASS, null, input);
+    }
+
+    /**
+     * 异步分发机制2/4: By RouteKey分发
+     */
+    public CompletableFuture<TResult> askByRouteKey(String routeKey, Object input) {
+        return request(ActorMessage.Kind.ROUTE_KEY, routeKey, input);
+    }
+
+    /**
+     * 异步分发机制3: By 枚举分发
+     */
+    public <E extends Enum<E>> CompletableFuture<TResult> askByEnum(E routeEnum, Object input) {
+        return request(ActorMessage.Kind.ENUM, routeEnum, input);
+    }
+
+    /**
+     * 异步分发机制5: By Command分发
+     */
+    public CompletableFuture<TResult> askByCommand(String command, Object input) {
+        return request(ActorMessage.Kind.COMMAND, command, input);
+    }
+
+    /**
+     * 非阻塞投递，邮箱已满时立即返回false（不应用溢出策略），调用方可据此在入口处限流
+     *
+     * @return 消息是否已入队
+     */
+    public boolean offer(Object input) {
+        return mailbox().offer(new ActorMessage<>(ActorMessage.Kind.CLASS, null, input, null));
+    }
+
+    /**
+     * @see #offer(Object)
+     */
+    public boolean offerByRouteKey(String routeKey, Object input) {
+        return mailbox().offer(new ActorMessage<>(ActorMessage.Kind.ROUTE_KEY, routeKey, input, null));
+    }
+
+    /**
+     * @see #offer(Object)
+     */
+    public <E extends Enum<E>> boolean offerByEnum(E routeEnum, Object input) {
+        return mailbox().offer(new ActorMessage<>(ActorMessage.Kind.ENUM, routeEnum, input, null));
+    }
+
+    /**
+     * @see #offer(Object)
+     */
+    public boolean offerByCommand(String command, Object input) {
+        return mailbox().offer(new ActorMessage<>(ActorMessage.Kind.COMMAND, command, input, null));
+    }
+
+    /**
+     * 邮箱中待处理的消息数（估计值）
+     */
+    public int getMailboxSize() {
+        ActorMailbox<TResult> current = mailbox;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * 入队时邮箱已满的累计次数，可作为背压信号
+     */
+    public long getMailboxOverflowCount() {
+        ActorMailbox<TResult> current = mailbox;
+        return current == null ? 0 : current.overflowCount();
+    }
+
+    private void send(ActorMessage<TResult> message) {
+        mailbox().post(message);
+    }
+
+    private CompletableFuture<TResult> request(ActorMessage.Kind kind, Object route, Object input) {
+        CompletableFuture<TResult> future = new CompletableFuture<>();
+        try {
+            send(new ActorMessage<>(kind, route, input, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 在邮箱的执行线程上处理一条消息
+     */
+    void deliver(ActorMessage<TResult> message) {
+        TResult result;
+        try {
+            switch (message.getKind()) {
+                case CLASS:
+                    result = call(message.getInput());
+                    break;
+                case ROUTE_KEY:
+                    result = callByRouteKey((String) message.getRoute(), message.getInput());
+                    break;
+                case ENUM:
+                    result = callByEnumUnchecked((Enum<?>) message.getRoute(), message.getInput());
+                    break;
+                default:
+                    result = callByCommand((String) message.getRoute(), message.getInput());
+                    break;
+            }
+        } catch (Throwable e) {
+            if (message.getFuture() != null) {
+                message.getFuture().completeExceptionally(e);
+            } else {
+                onTellFailure(message.getInput(), e);
+            }
+            return;
+        }
+        if (message.getFuture() != null) {
+            message.getFuture().complete(result);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Enum<E>> TResult callByEnumUnchecked(Enum<?> routeEnum, Object input) {
+        return callByEnum((E) routeEnum, input);
+    }
+
+    /**
+     * 直接分发入口返回的是handler结果本身（非 NOT_HANDLED 时必为 TResult）
+     */
+    @SuppressWarnings("unchecked")
+    private TResult cast(Object result) {
+        return (TResult) result;
+    }
+
     private DispatchResult<TResult> dispatch(DispatchRequest<TResult> request) {
         DispatchEngine<TResult> engine = route.getDispatchEngine();
         if (engine == null) {
@@ -0,0 +1,138 @@
+package com.dopkit.actor;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基于 ForkJoinPool 的 Actor 调度器
+ * 少量工作线程承载任意多个Actor：邮箱由空变为非空时，Actor 作为一个任务被提交；
+ * 每次执行最多处理 throughput 条消息后让出线程，剩余消息重新排队，兼顾缓存局部性与公平性。
+ * 工作线程上提交的任务（JDK 9+）进入该线程自己的队列（asyncMode，FIFO），空闲线程从其他线程的队列窃取。
+ *
+ * <pre>{@code
+ * ActorDispatcher dispatcher = ActorDispatcher.create("user-actors", 4, 32);
+ *
+ * @Override
+ * protected ActorMailboxConfig createMailboxConfig() {
+ *     return ActorMailboxConfig.create().dispatcher(dispatcher);
+ * }
+ * }</pre>
+ */
+public final class ActorDispatcher implements Executor {
+
+    public static final int DEFAULT_THROUGHPUT = 64;
+
+    private static volatile ActorDispatcher defaultDispatcher;
+
+    private final String name;
+    private final int throughput;
+    private final ForkJoinPool pool;
+
+    private ActorDispatcher(String name, int parallelism, int throughput) {
+        this.name = name;
+        this.throughput = throughput;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(name + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * @param name 线程名前缀
+     * @param parallelism 工作线程数
+     * @param throughput 每个Actor每次被调度时最多处理的消息数
+     */
+    public static ActorDispatcher create(String name, int parallelism, int throughput) {
+        Objects.requireNonNull(name, "name");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("throughput must be positive: " + throughput);
+        }
+        return new ActorDispatcher(name, parallelism, throughput);
+    }
+
+    /**
+     * 进程内共享的默认调度器：线程数为CPU核数，throughput 为 {@value #DEFAULT_THROUGHPUT}，守护线程
+     */
+    public static ActorDispatcher defaultDispatcher() {
+        ActorDispatcher current = defaultDispatcher;
+        if (current == null) {
+            synchronized (ActorDispatcher.class) {
+                current = defaultDispatcher;
+                if (current == null) {
+                    current = create("dopkit-actor", Runtime.getRuntime().availableProcessors(), DEFAULT_THROUGHPUT);
+                    defaultDispatcher = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 任务抛出的异常交给工作线程的 UncaughtExceptionHandler，不会被静默吞掉
+     */
+    @Override
+    public void execute(Runnable task) {
+        // JDK 9+ 上由本调度器工作线程提交（如Actor之间 tell）的任务直接进入当前线程的本地队列
+        pool.execute(task);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThroughput() {
+        return throughput;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 等待执行的Actor数量（各工作线程队列与外部提交队列之和，为估计值）
+     */
+    public long getQueueDepth() {
+        return pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount();
+    }
+
+    /**
+     * 工作线程从其他线程队列窃取任务的累计次数（估计值）
+     */
+    public long getStealCount() {
+        return pool.getStealCount();
+    }
+
+    public int getActiveThreadCount() {
+        return pool.getActiveThreadCount();
+    }
+
+    /**
+     * 不再接受新的调度，已排队的Actor继续执行
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "ActorDispatcher{name=" + name
+                + ", parallelism=" + getParallelism()
+                + ", throughput=" + throughput
+                + ", queueDepth=" + getQueueDepth()
+                + ", steals=" + getStealCount() + "}";
+    }
+}
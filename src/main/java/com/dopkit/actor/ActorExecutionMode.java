@@ -0,0 +1,79 @@
+package com.dopkit.actor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 邮箱消息的执行方式
+ *
+ * <ul>
+ *     <li>DISPATCHER：在 {@link ActorDispatcher} 的平台线程上执行，适合CPU密集、不阻塞的handler</li>
+ *     <li>VIRTUAL_THREAD：每次调度Actor时在一个新的虚拟线程上执行（JDK 21+），handler中阻塞的JDBC/HTTP调用
+ *     只挂起虚拟线程，数万个并发请求无需大线程池；同一Actor的消息仍然串行处理</li>
+ * </ul>
+ *
+ * 框架以 Java 8 为编译目标，虚拟线程执行器在运行时通过 MethodHandle 查找
+ * {@code Executors.newVirtualThreadPerTaskExecutor()}，低版本JDK上 {@link #isSupported()} 返回false。
+ */
+public enum ActorExecutionMode {
+
+    DISPATCHER,
+
+    VIRTUAL_THREAD;
+
+    /**
+     * 当前JVM是否支持该执行方式
+     */
+    public boolean isSupported() {
+        return this == DISPATCHER || VirtualThreads.EXECUTOR != null;
+    }
+
+    /**
+     * JDK 21+ 上为 VIRTUAL_THREAD，否则为 DISPATCHER
+     */
+    public static ActorExecutionMode bestAvailable() {
+        return VIRTUAL_THREAD.isSupported() ? VIRTUAL_THREAD : DISPATCHER;
+    }
+
+    /**
+     * 该执行方式的共享执行器
+     *
+     * @throws UnsupportedOperationException 当前JVM不支持虚拟线程
+     */
+    Executor executor() {
+        if (this == DISPATCHER) {
+            return ActorDispatcher.defaultDispatcher();
+        }
+        if (VirtualThreads.EXECUTOR == null) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads require JDK 21+, running on " + System.getProperty("java.version"));
+        }
+        return VirtualThreads.EXECUTOR;
+    }
+
+    /**
+     * 延迟到第一次使用 VIRTUAL_THREAD 时才查找
+     */
+    private static final class VirtualThreads {
+        private static final ExecutorService EXECUTOR = lookup();
+
+        private static ExecutorService lookup() {
+            try {
+                MethodHandle factory = MethodHandles.publicLookup().findStatic(
+                        Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+                return (ExecutorService) factory.invoke();
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            } catch (UnsupportedOperationException e) {
+                // JDK 19/20 未开启 --enable-preview
+                return null;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot create virtual thread executor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.dopkit.actor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明式注册Actor handler
+ * 标注在Actor的实例方法上，方法必须只有一个参数（输入类型，用于Class分发）且有返回值。
+ * 通过 ActorRouteBuilder.matchAnnotated(actor) 注册，效果等同于对每个方法调用一次 match(...)：
+ *
+ * <pre>{@code
+ * @ActorHandler(keys = {"search", "searchByKeyword"}, enumType = UserApiKey.class, enums = "SEARCH")
+ * public Result<List<User>> search(SearchUserRequest request) { ... }
+ * }</pre>
+ *
+ * @author kongweixian
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ActorHandler {
+
+    /**
+     * RouteKey集合
+     */
+    String[] keys() default {};
+
+    /**
+     * 枚举常量名集合，按 enumType 解析，名称不存在时注册失败
+     */
+    String[] enums() default {};
+
+    /**
+     * enums 所属的枚举类型
+     */
+    Class<? extends Enum<?>> enumType() default NoEnum.class;
+
+    /**
+     * 是否按参数类型注册Class分发
+     */
+    boolean byClass() default true;
+
+    /**
+     * 邮箱优先级，只影响 tell / ask / offer 的排队顺序
+     */
+    MessagePriority priority() default MessagePriority.NORMAL;
+
+    /**
+     * enumType 的默认值，表示未声明枚举
+     */
+    enum NoEnum {
+    }
+}
@@ -0,0 +1,297 @@
+package com.dopkit.actor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Actor 邮箱
+ * 消息进入有界无锁队列（入队一次CAS）；队列由空变为非空时把邮箱自身提交给 executor 执行一次，
+ * 每次执行最多处理 throughput 条消息，仍有剩余时重新提交，让同一线程池上的其他Actor得到执行。
+ * IDLE/SCHEDULED 状态保证同一时刻最多只有一个线程在处理，
+ * 状态切换（volatile 读写）同时保证了前后两次执行之间 Actor 状态的可见性，handler 无需加锁。
+ * 队列已满时按 {@link MailboxOverflowPolicy} 处理，只有溢出路径上才有额外开销。
+ * 路由声明了 {@link MessagePriority} 时每个优先级一个队列，入队前按路由目标选择队列，出队按严格优先级或权重轮转。
+ * 配置的容量是整个邮箱的精确上限：多个优先级队列、或容量不是2的幂（队列向上取整）时，
+ * 入队前先在共享计数上占位，此时入队与出队各多一次原子操作；单队列且容量为2的幂时由队列本身限界。
+ *
+ * @param <TResult> 结果类型
+ */
+final class ActorMailbox<TResult> implements Runnable {
+
+    private static final int IDLE = 0;
+    private static final int SCHEDULED = 1;
+
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AbstractActor<TResult> actor;
+    /**
+     * 按 MessagePriority 顺序；路由未声明优先级时只有一个队列
+     */
+    private final BoundedArrayQueue<ActorMessage<TResult>>[] queues;
+    private final RoutePriorities<TResult> priorities;
+    /**
+     * null 表示严格优先级
+     */
+    private final int[] weights;
+    /**
+     * 权重轮转中各优先级本轮剩余的份额，只由处理线程读写
+     */
+    private final int[] credits;
+    private final Executor executor;
+    private final int throughput;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private final MailboxOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Consumer<DeadLetter> deadLetterHandler;
+    private final LongAdder overflowCount = new LongAdder();
+    private final int capacity;
+    /**
+     * 各队列消息总数的占位计数；队列本身即为精确上限时为null
+     */
+    private final AtomicInteger count;
+    /**
+     * 正在处理本邮箱的线程，BLOCK 策略据此避免自己等待自己
+     */
+    private volatile Thread runner;
+
+    ActorMailbox(AbstractActor<TResult> actor, ActorMailboxConfig config, RoutePriorities<TResult> priorities) {
+        this.actor = actor;
+        this.priorities = priorities;
+        @SuppressWarnings("unchecked")
+        BoundedArrayQueue<ActorMessage<TResult>>[] priorityQueues = (BoundedArrayQueue<ActorMessage<TResult>>[])
+                new BoundedArrayQueue<?>[priorities == null ? 1 : MessagePriority.values().length];
+        this.queues = priorityQueues;
+        this.capacity = config.getCapacity();
+        for (int i = 0; i < queues.length; i++) {
+            // 每个队列都能容纳整个邮箱的消息，总数由 count 限制
+            queues[i] = new BoundedArrayQueue<>(capacity);
+        }
+        this.count = queues.length == 1 && queues[0].capacity() == capacity ? null : new AtomicInteger();
+        this.weights = priorities == null ? null : config.getPriorityWeights();
+        this.credits = weights == null ? null : weights.clone();
+        this.executor = config.getExecutor();
+        this.throughput = config.getThroughput();
+        this.overflowPolicy = config.getOverflowPolicy();
+        this.blockTimeoutNanos = config.getBlockTimeoutNanos();
+        this.deadLetterHandler = config.getDeadLetterHandler();
+    }
+
+    /**
+     * 非阻塞入队，不应用溢出策略
+     *
+     * @return 邮箱已满时返回false，消息未入队
+     */
+    boolean offer(ActorMessage<TResult> message) {
+        if (!enqueue(queueFor(message), message)) {
+            overflowCount.increment();
+            return false;
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * 入队，邮箱已满时按溢出策略处理
+     *
+     * @throws MailboxFullException 策略为 FAIL，或 BLOCK 超时/被中断/在本邮箱的处理线程上调用
+     */
+    void post(ActorMessage<TResult> message) {
+        BoundedArrayQueue<ActorMessage<TResult>> queue = queueFor(message);
+        if (enqueue(queue, message)) {
+            schedule();
+            return;
+        }
+        overflowCount.increment();
+        switch (overflowPolicy) {
+            case BLOCK:
+                block(queue, message);
+                break;
+            case DROP_NEWEST:
+                reject(message);
+                break;
+            case DROP_OLDEST:
+                dropOldest(queue, message);
+                break;
+            case DEAD_LETTER:
+                deadLetterHandler.accept(new DeadLetter(actor, message.getRoute(), message.getInput()));
+                reject(message);
+                break;
+            default:
+                throw full();
+        }
+    }
+
+    private BoundedArrayQueue<ActorMessage<TResult>> queueFor(ActorMessage<TResult> message) {
+        return priorities == null ? queues[0] : queues[priorities.of(message).ordinal()];
+    }
+
+    /**
+     * @return 邮箱已满时返回false
+     */
+    private boolean enqueue(BoundedArrayQueue<ActorMessage<TResult>> queue, ActorMessage<TResult> message) {
+        if (count == null) {
+            return queue.offer(message);
+        }
+        for (;;) {
+            int current = count.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (count.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+        // 占位成功后队列不会满（每个队列容量不小于邮箱容量），失败只作防御
+        if (!queue.offer(message)) {
+            count.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private ActorMessage<TResult> dequeue(BoundedArrayQueue<ActorMessage<TResult>> queue) {
+        ActorMessage<TResult> message = queue.poll();
+        if (message != null && count != null) {
+            count.decrementAndGet();
+        }
+        return message;
+    }
+
+    private void block(BoundedArrayQueue<ActorMessage<TResult>> queue, ActorMessage<TResult> message) {
+        if (Thread.currentThread() == runner) {
+            throw full();
+        }
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        long parkNanos = MIN_PARK_NANOS;
+        while (!enqueue(queue, message)) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw full();
+            }
+            if (blockTimeoutNanos > 0 && System.nanoTime() - deadline >= 0) {
+                throw full();
+            }
+            // 消费者出队时不做唤醒（保持出入队路径只有一次CAS），生产者指数退避轮询
+            LockSupport.parkNanos(this, parkNanos);
+            parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+        }
+        schedule();
+    }
+
+    /**
+     * 淘汰同一优先级队列中最旧的消息；该队列为空（邮箱被其他优先级占满）时淘汰最低优先级非空队列中最旧的消息
+     */
+    private void dropOldest(BoundedArrayQueue<ActorMessage<TResult>> queue, ActorMessage<TResult> message) {
+        do {
+            ActorMessage<TResult> oldest = dequeue(queue);
+            for (int i = queues.length - 1; oldest == null && i >= 0; i--) {
+                oldest = dequeue(queues[i]);
+            }
+            if (oldest != null) {
+                reject(oldest);
+            }
+        } while (!enqueue(queue, message));
+        schedule();
+    }
+
+    private void reject(ActorMessage<TResult> message) {
+        if (message.getFuture() != null) {
+            message.getFuture().completeExceptionally(full());
+        }
+    }
+
+    private MailboxFullException full() {
+        return new MailboxFullException("Mailbox full (capacity " + capacity + ", policy "
+                + overflowPolicy + ") for actor " + actor.getClass().getName(), overflowPolicy);
+    }
+
+    private void schedule() {
+        if (state.get() == IDLE && state.compareAndSet(IDLE, SCHEDULED)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                state.set(IDLE);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        runner = Thread.currentThread();
+        try {
+            ActorMessage<TResult> message;
+            for (int processed = 0; processed < throughput && (message = poll()) != null; processed++) {
+                actor.deliver(message);
+            }
+        } finally {
+            runner = null;
+            state.set(IDLE);
+            // 达到 throughput 后剩余的消息，以及置为IDLE之前入队（生产者看到SCHEDULED未提交）的消息，在这里重新调度
+            if (!isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private ActorMessage<TResult> poll() {
+        if (queues.length == 1) {
+            return dequeue(queues[0]);
+        }
+        if (weights == null) {
+            for (BoundedArrayQueue<ActorMessage<TResult>> queue : queues) {
+                ActorMessage<TResult> message = dequeue(queue);
+                if (message != null) {
+                    return message;
+                }
+            }
+            return null;
+        }
+        // 权重轮转：按优先级顺序取仍有份额的队列；有份额的队列都为空时开始新一轮
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < queues.length; i++) {
+                if (credits[i] > 0) {
+                    ActorMessage<TResult> message = dequeue(queues[i]);
+                    if (message != null) {
+                        credits[i]--;
+                        return message;
+                    }
+                }
+            }
+            System.arraycopy(weights, 0, credits, 0, weights.length);
+        }
+        return null;
+    }
+
+    private boolean isEmpty() {
+        for (BoundedArrayQueue<ActorMessage<TResult>> queue : queues) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        if (count != null) {
+            return count.get();
+        }
+        int size = 0;
+        for (BoundedArrayQueue<ActorMessage<TResult>> queue : queues) {
+            size += queue.size();
+        }
+        return size;
+    }
+
+    /**
+     * 入队时邮箱已满的累计次数（含 offer 返回false）
+     */
+    long overflowCount() {
+        return overflowCount.sum();
+    }
+}
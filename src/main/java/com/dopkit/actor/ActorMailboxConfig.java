@@ -0,0 +1,179 @@
+package com.dopkit.actor;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Actor 邮箱配置
+ * 由 AbstractActor.createMailboxConfig() 提供，在第一次 tell/ask 时读取一次。
+ *
+ * <pre>{@code
+ * @Override
+ * protected ActorMailboxConfig createMailboxConfig() {
+ *     return ActorMailboxConfig.create().capacity(4096).dispatcher(userDispatcher);
+ * }
+ * }</pre>
+ */
+public final class ActorMailboxConfig {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private int capacity = DEFAULT_CAPACITY;
+    private Executor executor;
+    private int throughput = ActorDispatcher.DEFAULT_THROUGHPUT;
+    private MailboxOverflowPolicy overflowPolicy = MailboxOverflowPolicy.FAIL;
+    private long blockTimeoutNanos;
+    private Consumer<DeadLetter> deadLetterHandler;
+    private int[] priorityWeights;
+
+    private ActorMailboxConfig() {
+    }
+
+    /**
+     * 默认配置：容量 {@value #DEFAULT_CAPACITY}，在 {@link ActorDispatcher#defaultDispatcher()} 上处理消息
+     */
+    public static ActorMailboxConfig create() {
+        return new ActorMailboxConfig();
+    }
+
+    /**
+     * 邮箱容量：整个邮箱（含所有优先级队列）最多容纳的消息数，按配置值精确限制，不取整
+     */
+    public ActorMailboxConfig capacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * 处理消息的线程池；同一个Actor的消息在任一时刻只会由其中一个线程处理
+     */
+    public ActorMailboxConfig executor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        return this;
+    }
+
+    /**
+     * 在指定调度器上处理消息，throughput 取调度器的设置
+     */
+    public ActorMailboxConfig dispatcher(ActorDispatcher dispatcher) {
+        this.executor = Objects.requireNonNull(dispatcher, "dispatcher");
+        this.throughput = dispatcher.getThroughput();
+        return this;
+    }
+
+    /**
+     * 按执行方式选择共享执行器；VIRTUAL_THREAD 时每次调度Actor都在新的虚拟线程上运行，handler 可以阻塞
+     *
+     * @throws UnsupportedOperationException 当前JVM不支持该执行方式（见 {@link ActorExecutionMode#isSupported()}）
+     */
+    public ActorMailboxConfig executionMode(ActorExecutionMode mode) {
+        Objects.requireNonNull(mode, "mode");
+        this.executor = mode.executor();
+        return this;
+    }
+
+    /**
+     * 每次被调度时最多处理的消息数，处理完后让出线程，剩余消息重新排队
+     */
+    public ActorMailboxConfig throughput(int throughput) {
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("throughput must be positive: " + throughput);
+        }
+        this.throughput = throughput;
+        return this;
+    }
+
+    /**
+     * 邮箱已满时的处理方式，默认 FAIL；DEAD_LETTER 请使用 {@link #deadLetters(Consumer)}
+     */
+    public ActorMailboxConfig overflow(MailboxOverflowPolicy policy) {
+        Objects.requireNonNull(policy, "policy");
+        if (policy == MailboxOverflowPolicy.DEAD_LETTER && deadLetterHandler == null) {
+            throw new IllegalArgumentException("DEAD_LETTER requires a handler, use deadLetters(handler)");
+        }
+        this.overflowPolicy = policy;
+        return this;
+    }
+
+    /**
+     * BLOCK 策略下生产者最长等待时间，超时按 FAIL 处理；不设置时一直等待
+     */
+    public ActorMailboxConfig blockTimeout(long timeout, TimeUnit unit) {
+        Objects.requireNonNull(unit, "unit");
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be positive: " + timeout);
+        }
+        this.blockTimeoutNanos = unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * 邮箱已满时把新消息交给死信处理器（溢出策略设为 DEAD_LETTER）
+     * 处理器在生产者线程上执行，应尽快返回
+     */
+    public ActorMailboxConfig deadLetters(Consumer<DeadLetter> handler) {
+        this.deadLetterHandler = Objects.requireNonNull(handler, "handler");
+        this.overflowPolicy = MailboxOverflowPolicy.DEAD_LETTER;
+        return this;
+    }
+
+    /**
+     * 路由声明了 {@link MessagePriority} 时按严格优先级出队：高优先级队列非空时不处理低优先级消息（默认）
+     * 持续的高优先级流量会让低优先级消息一直等待，需要保证其进度时使用 {@link #weightedPriority(int, int, int)}
+     */
+    public ActorMailboxConfig strictPriority() {
+        this.priorityWeights = null;
+        return this;
+    }
+
+    /**
+     * 路由声明了 {@link MessagePriority} 时按权重轮转出队：每一轮 HIGH / NORMAL / LOW 最多各处理对应条数，
+     * 高优先级仍先处理，但低优先级在每一轮中都能得到份额
+     */
+    public ActorMailboxConfig weightedPriority(int high, int normal, int low) {
+        if (high <= 0 || normal <= 0 || low <= 0) {
+            throw new IllegalArgumentException("weights must be positive: " + high + "/" + normal + "/" + low);
+        }
+        this.priorityWeights = new int[]{high, normal, low};
+        return this;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Executor getExecutor() {
+        return executor != null ? executor : ActorDispatcher.defaultDispatcher();
+    }
+
+    public int getThroughput() {
+        return throughput;
+    }
+
+    public MailboxOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return 0 表示一直等待
+     */
+    public long getBlockTimeoutNanos() {
+        return blockTimeoutNanos;
+    }
+
+    public Consumer<DeadLetter> getDeadLetterHandler() {
+        return deadLetterHandler;
+    }
+
+    /**
+     * @return 按 MessagePriority 顺序的权重；null 表示严格优先级
+     */
+    public int[] getPriorityWeights() {
+        return priorityWeights == null ? null : priorityWeights.clone();
+    }
+}
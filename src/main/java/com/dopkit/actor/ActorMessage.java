@@ -0,0 +1,49 @@
+package com.dopkit.actor;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 邮箱中的一条消息：分发方式、路由值、输入，以及 ask 时等待结果的 future（tell 时为null）
+ *
+ * @param <TResult> 结果类型
+ */
+final class ActorMessage<TResult> {
+
+    enum Kind {
+        CLASS,
+        ROUTE_KEY,
+        ENUM,
+        COMMAND
+    }
+
+    private final Kind kind;
+    /**
+     * ROUTE_KEY / COMMAND 为字符串，ENUM 为枚举常量，CLASS 为null
+     */
+    private final Object route;
+    private final Object input;
+    private final CompletableFuture<TResult> future;
+
+    ActorMessage(Kind kind, Object route, Object input, CompletableFuture<TResult> future) {
+        this.kind = kind;
+        this.route = route;
+        this.input = input;
+        this.future = future;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    Object getRoute() {
+        return route;
+    }
+
+    Object getInput() {
+        return input;
+    }
+
+    CompletableFuture<TResult> getFuture() {
+        return future;
+    }
+}
@@ -1,8 +1,11 @@
 package com.dopkit.actor;
 
 import com.dopkit.dispatch.DispatchEngine;
+import com.dopkit.dispatch.DispatchMetrics;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -37,6 +40,11 @@ public class ActorRoute<TResult> {
      */
     private final Map<Class<? extends Enum<?>>, Function<String, ? extends Enum<?>>> enumConverters = new HashMap<>();
 
+    /**
+     * 内置枚举名称转换器，build() 时展开为 RouteKey 到 Handler 的直接映射
+     */
+    private final List<EnumNameConverter<?>> enumNameConverters = new ArrayList<>();
+
     /**
      * 默认输入处理器，用于兜底处理未匹配到的输入类型
      */
@@ -70,6 +78,26 @@ public class ActorRoute<TResult> {
      */
     private BiFunction<String, Object, TResult> commandDefaultHandler;
 
+    /**
+     * Class分发是否沿继承层次查找handler（精确类型 -> 父类 -> 接口 -> Object）
+     */
+    private boolean classHierarchyDispatch;
+
+    /**
+     * callByRouteKey 的融合解析器，由 ActorRouteBuilder.build() 生成
+     */
+    private RouteKeyResolver<TResult> routeKeyResolver;
+
+    /**
+     * 邮箱消息优先级，没有handler声明优先级时为null
+     */
+    private RoutePriorities<TResult> priorities;
+
+    /**
+     * 分发指标，未开启时为null
+     */
+    private DispatchMetrics metrics;
+
     /**
      * Dispatch engine shared by actors.
      */
@@ -92,6 +120,10 @@ public class ActorRoute<TResult> {
         return enumConverters;
     }
 
+    public List<EnumNameConverter<?>> getEnumNameConverters() {
+        return enumNameConverters;
+    }
+
     public Function<Object, TResult> getDefaultInputHandler() {
         return defaultInputHandler;
     }
@@ -140,6 +172,38 @@ public class ActorRoute<TResult> {
         this.commandDefaultHandler = commandDefaultHandler;
     }
 
+    public boolean isClassHierarchyDispatch() {
+        return classHierarchyDispatch;
+    }
+
+    public void setClassHierarchyDispatch(boolean classHierarchyDispatch) {
+        this.classHierarchyDispatch = classHierarchyDispatch;
+    }
+
+    RouteKeyResolver<TResult> getRouteKeyResolver() {
+        return routeKeyResolver;
+    }
+
+    void setRouteKeyResolver(RouteKeyResolver<TResult> routeKeyResolver) {
+        this.routeKeyResolver = routeKeyResolver;
+    }
+
+    RoutePriorities<TResult> getPriorities() {
+        return priorities;
+    }
+
+    void setPriorities(RoutePriorities<TResult> priorities) {
+        this.priorities = priorities;
+    }
+
+    public DispatchMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(DispatchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     public DispatchEngine<TResult> getDispatchEngine() {
         return dispatchEngine;
     }
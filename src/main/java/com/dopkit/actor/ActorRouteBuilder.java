@@ -1,11 +1,19 @@
 package com.dopkit.actor;
 
 import com.dopkit.dispatch.DispatchEngine;
+import com.dopkit.dispatch.DispatchMetrics;
 import com.dopkit.dispatch.DispatchStrategyConfig;
+import com.dopkit.dispatch.FrozenKeyMap;
 
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
@@ -17,8 +25,33 @@ import java.util.function.Function;
  */
 public class ActorRouteBuilder<TResult> {
 
+    /**
+     * callByRouteKey 未知key缓存的默认容量
+     */
+    public static final int DEFAULT_ROUTE_KEY_CACHE_CAPACITY = 1024;
+
     private final ActorRoute<TResult> route;
 
+    private int routeKeyCacheCapacity = DEFAULT_ROUTE_KEY_CACHE_CAPACITY;
+
+    private boolean freezeRouteKeys;
+
+    private DispatchMetrics metrics;
+
+    /**
+     * handler -> 指标名称，开启指标时用于按handler计数
+     */
+    private final Map<Function<Object, TResult>, String> handlerNames = new IdentityHashMap<>();
+
+    /**
+     * 最近一次注册的handler，priority(...) 作用于它
+     */
+    private Function<Object, TResult> lastHandler;
+
+    private final Map<Function<Object, TResult>, MessagePriority> handlerPriorities = new IdentityHashMap<>();
+
+    private final Map<Enum<?>, MessagePriority> commandPriorities = new HashMap<>();
+
     private ActorRouteBuilder(ActorRoute<TResult> route) {
         this.route = route;
     }
@@ -51,37 +84,130 @@ public class ActorRouteBuilder<TResult> {
         Objects.requireNonNull(handler, "handler");
 
         // 包装handler，添加类型检查
-        Function<Object, TResult> wrappedHandler = input -> {
-            if (input != null && !inputClass.isInstance(input)) {
-                throw new IllegalArgumentException(
-                        String.format("Handler for %s cannot process %s",
-                                inputClass.getName(),
-                                input.getClass().getName()));
+        Function<Object, TResult> wrappedHandler = input -> handler.apply(checkInput(inputClass, input));
+        register(inputClass.getName(), inputClass, true, routeKeys, routeEnums, wrappedHandler);
+        return this;
+    }
+
+    /**
+     * 注册actor上所有标注了 {@link ActorHandler} 的方法
+     * 存在注解处理器生成的 {@link ActorRouteRegistrar} 时直接使用它；否则反射扫描，
+     * 扫描结果按Actor类缓存，handler通过 LambdaMetafactory 绑定，调用开销与手写方法引用相同。
+     * 使用框架自身的访问权限，要求Actor类与handler方法均为public；否则使用 {@link #matchAnnotated(Object, MethodHandles.Lookup)}。
+     *
+     * @param actor 声明handler方法的实例，通常为 this
+     */
+    public ActorRouteBuilder<TResult> matchAnnotated(Object actor) {
+        return matchAnnotated(actor, null);
+    }
+
+    /**
+     * 注册actor上所有标注了 {@link ActorHandler} 的方法
+     *
+     * @param actor 声明handler方法的实例，通常为 this
+     * @param lookup 在Actor类中调用 MethodHandles.lookup() 得到的Lookup，可访问非public的类与方法
+     */
+    public ActorRouteBuilder<TResult> matchAnnotated(Object actor, MethodHandles.Lookup lookup) {
+        Objects.requireNonNull(actor, "actor");
+        ActorRouteRegistrar<Object> generated = ActorRouteRegistrars.find(actor.getClass());
+        if (generated != null) {
+            generated.register(actor, this);
+            return this;
+        }
+        for (AnnotatedHandlers.Binding binding : AnnotatedHandlers.of(actor.getClass(), lookup)) {
+            Class<?> inputClass = binding.getInputType();
+            BiFunction<Object, Object, Object> invoker = binding.getInvoker();
+            Function<Object, TResult> handler = input -> {
+                @SuppressWarnings("unchecked")
+                TResult result = (TResult) invoker.apply(actor, checkInput(inputClass, input));
+                return result;
+            };
+            register(binding.getName(), inputClass, binding.isByClass(), binding.getKeys(), binding.getEnums(), handler);
+            if (binding.getPriority() != MessagePriority.NORMAL) {
+                priority(binding.getPriority());
             }
-            return handler.apply(inputClass.cast(input));
-        };
+        }
+        return this;
+    }
+
+    private static <TInput> TInput checkInput(Class<TInput> inputClass, Object input) {
+        if (input != null && !inputClass.isInstance(input)) {
+            throw new IllegalArgumentException(
+                    String.format("Handler for %s cannot process %s",
+                            inputClass.getName(),
+                            input.getClass().getName()));
+        }
+        return inputClass.cast(input);
+    }
+
+    private void register(
+            String handlerName,
+            Class<?> inputClass,
+            boolean byClass,
+            Set<String> routeKeys,
+            Set<? extends Enum<?>> routeEnums,
+            Function<Object, TResult> handler) {
+        handlerNames.putIfAbsent(handler, handlerName);
+        lastHandler = handler;
 
         // 注册到Class映射
-        route.getClassToHandlerMap().put(inputClass, wrappedHandler);
+        if (byClass) {
+            route.getClassToHandlerMap().put(inputClass, handler);
+        }
 
         // 注册到RouteKey映射
         if (routeKeys != null) {
             for (String key : routeKeys) {
                 if (key != null && !key.isEmpty()) {
-                    route.getKeyToHandlerMap().put(key, wrappedHandler);
+                    route.getKeyToHandlerMap().put(key, handler);
                 }
             }
         }
 
         // 注册到Enum映射
         if (routeEnums != null) {
-            for (E enumValue : routeEnums) {
+            for (Enum<?> enumValue : routeEnums) {
                 if (enumValue != null) {
-                    route.getEnumToHandlerMap().put(enumValue, wrappedHandler);
+                    route.getEnumToHandlerMap().put(enumValue, handler);
                 }
             }
         }
+    }
 
+    /**
+     * 注册自行完成输入类型检查的handler，handler 直接作为路由表项，不再包装类型检查
+     * 供注解处理器生成的 {@link ActorRouteRegistrar} 使用：生成的handler类本身就是表项，分发时没有额外的lambda层。
+     * handler 收到不是 inputClass 实例的非null输入时须抛出 IllegalArgumentException，与 match 的检查一致。
+     *
+     * @param handlerName 指标中显示的handler名称
+     * @param byClass 是否注册Class映射，对应 {@code @ActorHandler(byClass)}
+     */
+    public <E extends Enum<E>> ActorRouteBuilder<TResult> matchChecked(
+            String handlerName,
+            Class<?> inputClass,
+            boolean byClass,
+            Set<String> routeKeys,
+            Set<E> routeEnums,
+            Function<Object, TResult> handler) {
+        Objects.requireNonNull(handlerName, "handlerName");
+        Objects.requireNonNull(inputClass, "inputClass");
+        Objects.requireNonNull(handler, "handler");
+        register(handlerName, inputClass, byClass, routeKeys, routeEnums, handler);
+        return this;
+    }
+
+    /**
+     * 只注册RouteKey与Enum分发，不注册Class映射（对应 {@code @ActorHandler(byClass = false)}）
+     */
+    public <TInput, E extends Enum<E>> ActorRouteBuilder<TResult> matchKeys(
+            final Class<TInput> inputClass,
+            final Set<String> routeKeys,
+            final Set<E> routeEnums,
+            final Function<TInput, TResult> handler) {
+        Objects.requireNonNull(inputClass, "inputClass");
+        Objects.requireNonNull(handler, "handler");
+        register(inputClass.getName(), inputClass, false, routeKeys, routeEnums,
+                input -> handler.apply(checkInput(inputClass, input)));
         return this;
     }
 
@@ -114,6 +240,17 @@ public class ActorRouteBuilder<TResult> {
         return match(inputClass, null, routeEnums, handler);
     }
 
+    /**
+     * 开启按继承层次的Class分发
+     * 输入类型没有精确匹配的handler时，依次查找：最近的父类（不含Object）、接口（由子类到父类、按声明顺序广度优先）、Object。
+     * 适用于代理类、Lombok等生成的子类以及按接口注册handler的场景。
+     * 查找结果按具体类型缓存在 ClassValue 中，首次之后与精确查找开销相同，因此 build() 之后不要再修改 Class 映射。
+     */
+    public ActorRouteBuilder<TResult> resolveClassHierarchy() {
+        route.setClassHierarchyDispatch(true);
+        return this;
+    }
+
     /**
      * 注册枚举转换器
      * 用于支持 callByRouteKey 时自动尝试将字符串转换为枚举
@@ -130,6 +267,103 @@ public class ActorRouteBuilder<TResult> {
         return this;
     }
 
+    /**
+     * 注册内置枚举名称转换器（按常量名精确匹配）
+     * 等价于 registerEnumNames(EnumNameConverter.of(enumClass))
+     */
+    public <E extends Enum<E>> ActorRouteBuilder<TResult> registerEnumNames(Class<E> enumClass) {
+        return registerEnumNames(EnumNameConverter.of(enumClass));
+    }
+
+    /**
+     * 注册内置枚举名称转换器（机制4）
+     * build() 时把常量名与别名展开为 RouteKey -> handler 的映射表，callByRouteKey 只做一次哈希查找，
+     * 未命中时才回退到 registerEnumConverter 注册的自定义转换器。
+     * 多个转换器产生相同的 RouteKey 时，先注册的优先。
+     *
+     * @param converter 转换器配置，见 {@link EnumNameConverter}
+     */
+    public <E extends Enum<E>> ActorRouteBuilder<TResult> registerEnumNames(EnumNameConverter<E> converter) {
+        Objects.requireNonNull(converter, "converter");
+        route.getEnumNameConverters().add(converter);
+        return this;
+    }
+
+    /**
+     * 设置 callByRouteKey 解析缓存的容量
+     * 仅在注册了 registerEnumConverter 自定义转换器时生效：转换器的解析结果（包括未命中）按key缓存，
+     * 重复的未知key不再逐个调用转换器。传入0关闭缓存。
+     */
+    public ActorRouteBuilder<TResult> routeKeyCacheCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        this.routeKeyCacheCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * build() 时把RouteKey表冻结为最小完美哈希（{@link FrozenKeyMap}）
+     * 每次查找固定为一次槽位定位加一次 equals，数组布局比 HashMap 节点更紧凑，适合RouteKey数量很大且构建后不再变化的路由。
+     * 冻结后 build() 之后对 RouteKey 映射的修改不再生效。
+     */
+    public ActorRouteBuilder<TResult> freezeRouteKeys() {
+        this.freezeRouteKeys = true;
+        return this;
+    }
+
+    /**
+     * 为最近一次注册（match / matchKeys / matchByClass... / matchAnnotated 中的单个方法）的handler声明邮箱优先级
+     * 只影响 tell / ask / offer 的排队顺序，同步 call* 不受影响。
+     *
+     * <pre>{@code
+     * .match(GetUserDetailRequest.class, keys, enums, this::getDetail).priority(MessagePriority.HIGH)
+     * .match(ListAllUsersRequest.class, keys, enums, this::listAll).priority(MessagePriority.LOW)
+     * }</pre>
+     */
+    public ActorRouteBuilder<TResult> priority(MessagePriority priority) {
+        Objects.requireNonNull(priority, "priority");
+        if (lastHandler == null) {
+            throw new IllegalStateException("priority(...) must follow a handler registration");
+        }
+        handlerPriorities.put(lastHandler, priority);
+        return this;
+    }
+
+    /**
+     * 为 CommandTable 中的命令声明邮箱优先级
+     * 入队时按命令枚举常量名忽略大小写匹配，不调用 commandConverter；只能由转换器识别的其他写法按 NORMAL 排队
+     */
+    @SafeVarargs
+    public final <E extends Enum<E>> ActorRouteBuilder<TResult> commandPriority(MessagePriority priority, E... commands) {
+        Objects.requireNonNull(priority, "priority");
+        for (E command : commands) {
+            commandPriorities.put(Objects.requireNonNull(command, "command"), priority);
+        }
+        return this;
+    }
+
+    /**
+     * 开启分发指标，使用新建的 {@link DispatchMetrics}
+     */
+    public ActorRouteBuilder<TResult> enableMetrics() {
+        return enableMetrics(new DispatchMetrics());
+    }
+
+    /**
+     * 开启分发指标
+     * 记录各分发策略的调用次数、未处理次数与耗时分布，每个handler（按注册名称：输入类型或 类#方法）
+     * 及每个默认处理器（matchAny / matchAnyKey / matchAnyEnum / command）的调用次数。
+     * 指标可通过 ActorRoute.getMetrics().snapshot() 导出；未开启时分发路径上没有任何计数与计时。
+     *
+     * @param metrics 指标容器，可在多个路由间共享
+     */
+    public ActorRouteBuilder<TResult> enableMetrics(DispatchMetrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        route.setMetrics(metrics);
+        return this;
+    }
+
     /**
      * 注册默认输入处理器
      */
@@ -205,17 +439,37 @@ public class ActorRouteBuilder<TResult> {
         return this;
     }
 
+    /**
+     * 机制5: 使用框架级 EnumCommandTable 注册CommandTable
+     * 命令到handler的映射在 EnumCommandTable 创建时已按 ordinal() 展开为数组，分发时只做一次名称查找和一次数组读取
+     *
+     * @param commandTable 命令表
+     * @param defaultHandler 兜底处理器
+     * @param <E> 枚举类型
+     * @return 构建器自身，支持链式调用
+     */
+    public <E extends Enum<E>> ActorRouteBuilder<TResult> registerCommandTable(
+            EnumCommandTable<E, TResult> commandTable,
+            BiFunction<String, Object, TResult> defaultHandler) {
+        Objects.requireNonNull(commandTable, "commandTable");
+        return registerCommandTable(commandTable::toCommand, commandTable::getHandler, defaultHandler);
+    }
+
     /**
      * 构建并返回ActorRoute实例
      */
     public ActorRoute<TResult> build() {
-        DispatchEngine<TResult> engine = new DispatchEngine<>();
+        if (metrics != null) {
+            instrumentHandlers();
+        }
+        DispatchEngine<TResult> engine = new DispatchEngine<>(metrics);
 
         if (!route.getClassToHandlerMap().isEmpty() || route.getDefaultInputHandler() != null) {
             engine.registerStrategy(DispatchStrategyConfig.forClassStrategy(
                     new DispatchStrategyConfig.ClassDispatchConfig<>(
                             route.getClassToHandlerMap(),
-                            route.getDefaultInputHandler()
+                            route.getDefaultInputHandler(),
+                            route.isClassHierarchyDispatch()
                     )));
         }
 
@@ -224,7 +478,9 @@ public class ActorRouteBuilder<TResult> {
                 || route.getDefaultInputHandler() != null) {
             engine.registerStrategy(DispatchStrategyConfig.forRouteKeyStrategy(
                     new DispatchStrategyConfig.RouteKeyDispatchConfig<>(
-                            route.getKeyToHandlerMap(),
+                            freezeRouteKeys
+                                    ? FrozenKeyMap.copyOf(route.getKeyToHandlerMap())
+                                    : route.getKeyToHandlerMap(),
                             route.getDefaultKeyHandler(),
                             route.getDefaultInputHandler()
                     )));
@@ -241,11 +497,18 @@ public class ActorRouteBuilder<TResult> {
                     )));
         }
 
-        if (!route.getEnumConverters().isEmpty()) {
+        Map<String, Function<Object, TResult>> keyHandlerMap = new HashMap<>();
+        Map<String, Function<Object, TResult>> ignoreCaseKeyHandlerMap = new LinkedHashMap<>();
+        for (EnumNameConverter<?> converter : route.getEnumNameConverters()) {
+            expandEnumNames(converter, keyHandlerMap, ignoreCaseKeyHandlerMap);
+        }
+        if (!route.getEnumConverters().isEmpty() || !route.getEnumNameConverters().isEmpty()) {
             engine.registerStrategy(DispatchStrategyConfig.forRouteKeyToEnumStrategy(
                     new DispatchStrategyConfig.RouteKeyToEnumDispatchConfig<>(
                             route.getEnumConverters(),
-                            route.getEnumToHandlerMap()
+                            route.getEnumToHandlerMap(),
+                            keyHandlerMap,
+                            ignoreCaseKeyHandlerMap
                     )));
         }
 
@@ -260,7 +523,113 @@ public class ActorRouteBuilder<TResult> {
                     )));
         }
 
+        // 机制2 + 机制4 + 兜底合并为一次查找：直接RouteKey优先于枚举名称
+        Map<String, Function<Object, TResult>> fusedKeyHandlerMap = new HashMap<>(keyHandlerMap);
+        fusedKeyHandlerMap.putAll(route.getKeyToHandlerMap());
+        route.setRouteKeyResolver(new RouteKeyResolver<>(
+                freezeRouteKeys ? FrozenKeyMap.copyOf(fusedKeyHandlerMap) : fusedKeyHandlerMap,
+                ignoreCaseKeyHandlerMap,
+                route.getEnumConverters(),
+                route.getEnumToHandlerMap(),
+                route.getDefaultKeyHandler(),
+                route.getDefaultInputHandler(),
+                routeKeyCacheCapacity,
+                engine));
+
+        if (!handlerPriorities.isEmpty() || !commandPriorities.isEmpty()) {
+            route.setPriorities(new RoutePriorities<>(
+                    handlerPriorities,
+                    commandPriorities,
+                    fusedKeyHandlerMap,
+                    ignoreCaseKeyHandlerMap,
+                    route.getEnumToHandlerMap(),
+                    engine));
+        }
+
         route.setDispatchEngine(engine);
         return route;
     }
+
+    /**
+     * 用计数包装替换已注册的handler与默认处理器；同一个handler在各映射中共享同一个包装与计数器
+     */
+    private void instrumentHandlers() {
+        Map<Function<Object, TResult>, Function<Object, TResult>> wrapped = new IdentityHashMap<>();
+        Function<Function<Object, TResult>, Function<Object, TResult>> instrument = handler ->
+                wrapped.computeIfAbsent(handler, original -> {
+                    LongAdder counter = metrics.handlerCounter(handlerNames.getOrDefault(original, "anonymous"));
+                    return input -> {
+                        counter.increment();
+                        return original.apply(input);
+                    };
+                });
+        route.getClassToHandlerMap().replaceAll((type, handler) -> instrument.apply(handler));
+        route.getKeyToHandlerMap().replaceAll((key, handler) -> instrument.apply(handler));
+        route.getEnumToHandlerMap().replaceAll((routeEnum, handler) -> instrument.apply(handler));
+        // 优先级按handler引用查找，改为以包装后的handler为键
+        Map<Function<Object, TResult>, MessagePriority> priorities = new IdentityHashMap<>(handlerPriorities);
+        handlerPriorities.clear();
+        priorities.forEach((handler, priority) -> handlerPriorities.put(instrument.apply(handler), priority));
+
+        Function<Object, TResult> defaultInputHandler = route.getDefaultInputHandler();
+        if (defaultInputHandler != null) {
+            LongAdder counter = metrics.defaultHandlerCounter("matchAny");
+            route.setDefaultInputHandler(input -> {
+                counter.increment();
+                return defaultInputHandler.apply(input);
+            });
+        }
+        BiFunction<String, Object, TResult> defaultKeyHandler = route.getDefaultKeyHandler();
+        if (defaultKeyHandler != null) {
+            LongAdder counter = metrics.defaultHandlerCounter("matchAnyKey");
+            route.setDefaultKeyHandler((key, input) -> {
+                counter.increment();
+                return defaultKeyHandler.apply(key, input);
+            });
+        }
+        BiFunction<Enum<?>, Object, TResult> defaultEnumHandler = route.getDefaultEnumHandler();
+        if (defaultEnumHandler != null) {
+            LongAdder counter = metrics.defaultHandlerCounter("matchAnyEnum");
+            route.setDefaultEnumHandler((routeEnum, input) -> {
+                counter.increment();
+                return defaultEnumHandler.apply(routeEnum, input);
+            });
+        }
+        BiFunction<String, Object, TResult> commandDefaultHandler = route.getCommandDefaultHandler();
+        if (commandDefaultHandler != null) {
+            LongAdder counter = metrics.defaultHandlerCounter("command");
+            route.setCommandDefaultHandler((command, input) -> {
+                counter.increment();
+                return commandDefaultHandler.apply(command, input);
+            });
+        }
+    }
+
+    /**
+     * 将一个枚举名称转换器展开为 RouteKey -> handler：只收录已注册handler的常量，常量名优先于别名
+     */
+    private <E extends Enum<E>> void expandEnumNames(
+            EnumNameConverter<E> converter,
+            Map<String, Function<Object, TResult>> keyHandlerMap,
+            Map<String, Function<Object, TResult>> ignoreCaseKeyHandlerMap) {
+        Map<String, Function<Object, TResult>> expanded = new LinkedHashMap<>();
+        for (E constant : converter.getEnumClass().getEnumConstants()) {
+            Function<Object, TResult> handler = route.getEnumToHandlerMap().get(constant);
+            if (handler != null) {
+                expanded.put(constant.name(), handler);
+            }
+        }
+        for (Map.Entry<String, E> alias : converter.getAliases().entrySet()) {
+            Function<Object, TResult> handler = route.getEnumToHandlerMap().get(alias.getValue());
+            if (handler != null) {
+                expanded.putIfAbsent(alias.getKey(), handler);
+            }
+        }
+        for (Map.Entry<String, Function<Object, TResult>> entry : expanded.entrySet()) {
+            keyHandlerMap.putIfAbsent(entry.getKey(), entry.getValue());
+            if (converter.isIgnoreCase()) {
+                ignoreCaseKeyHandlerMap.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
 }
@@ -0,0 +1,22 @@
+package com.dopkit.actor;
+
+/**
+ * 由注解处理器为每个声明了 {@link ActorHandler} 方法的Actor类生成的路由注册器
+ * 生成类与Actor类位于同一个包，命名为 Actor类名（嵌套类以 _ 连接）+ "_ActorRoutes"，
+ * 每个handler是一个直接调用Actor方法的具体类，启动时无需反射扫描或 LambdaMetafactory。
+ * ActorRouteBuilder.matchAnnotated 在找到生成类时优先使用它。
+ *
+ * @param <A> Actor类型
+ */
+public interface ActorRouteRegistrar<A> {
+
+    /**
+     * 生成类名后缀
+     */
+    String CLASS_NAME_SUFFIX = "_ActorRoutes";
+
+    /**
+     * 把actor上的handler注册到构建器
+     */
+    <TResult> void register(A actor, ActorRouteBuilder<TResult> builder);
+}
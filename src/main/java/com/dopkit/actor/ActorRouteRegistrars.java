@@ -0,0 +1,59 @@
+package com.dopkit.actor;
+
+/**
+ * 按Actor类缓存生成的 {@link ActorRouteRegistrar}，每个类只做一次 Class.forName
+ */
+final class ActorRouteRegistrars {
+
+    private static final ActorRouteRegistrar<Object> NONE = new ActorRouteRegistrar<Object>() {
+        @Override
+        public <TResult> void register(Object actor, ActorRouteBuilder<TResult> builder) {
+        }
+    };
+
+    private static final ClassValue<ActorRouteRegistrar<?>> CACHE = new ClassValue<ActorRouteRegistrar<?>>() {
+        @Override
+        protected ActorRouteRegistrar<?> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private ActorRouteRegistrars() {
+    }
+
+    /**
+     * @return 生成的注册器，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    static ActorRouteRegistrar<Object> find(Class<?> actorType) {
+        ActorRouteRegistrar<?> registrar = CACHE.get(actorType);
+        return registrar == NONE ? null : (ActorRouteRegistrar<Object>) registrar;
+    }
+
+    /**
+     * 生成类名：包名 + 去掉包名后的二进制类名（$ 替换为 _）+ 后缀，与注解处理器的命名规则一致
+     */
+    static String registrarClassName(Class<?> actorType) {
+        String name = actorType.getName();
+        int lastDot = name.lastIndexOf('.');
+        String packagePrefix = lastDot < 0 ? "" : name.substring(0, lastDot + 1);
+        return packagePrefix + name.substring(lastDot + 1).replace('$', '_') + ActorRouteRegistrar.CLASS_NAME_SUFFIX;
+    }
+
+    private static ActorRouteRegistrar<?> load(Class<?> actorType) {
+        Class<?> generated;
+        try {
+            generated = Class.forName(registrarClassName(actorType), true, actorType.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return NONE;
+        }
+        if (!ActorRouteRegistrar.class.isAssignableFrom(generated)) {
+            return NONE;
+        }
+        try {
+            return (ActorRouteRegistrar<?>) generated.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate generated route registrar " + generated.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.dopkit.actor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * 按Actor类缓存的 {@link ActorHandler} 扫描结果
+ * 每个Actor类只反射扫描一次，每个方法通过 LambdaMetafactory 编译为一个 BiFunction(actor, input)，
+ * 调用时与手写的方法引用一样是普通的接口调用，不经过 Method.invoke。
+ * 同一个类的多个实例共享这些 BiFunction，只需各自绑定 this。
+ */
+final class AnnotatedHandlers {
+
+    private static final ClassValue<AnnotatedHandlers> CACHE = new ClassValue<AnnotatedHandlers>() {
+        @Override
+        protected AnnotatedHandlers computeValue(Class<?> type) {
+            return new AnnotatedHandlers(type);
+        }
+    };
+
+    private static final MethodType INVOKER_FACTORY_TYPE = MethodType.methodType(BiFunction.class);
+    private static final MethodType INVOKER_ERASED_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object.class);
+
+    private final Class<?> actorType;
+    private volatile List<Binding> bindings;
+
+    private AnnotatedHandlers(Class<?> actorType) {
+        this.actorType = actorType;
+    }
+
+    /**
+     * @param lookup 具有Actor类访问权限的Lookup；为null时使用框架自身的Lookup，此时Actor类与handler方法都必须是public
+     */
+    static List<Binding> of(Class<?> actorType, MethodHandles.Lookup lookup) {
+        return CACHE.get(actorType).bindings(lookup);
+    }
+
+    private List<Binding> bindings(MethodHandles.Lookup lookup) {
+        List<Binding> result = bindings;
+        if (result == null) {
+            synchronized (this) {
+                result = bindings;
+                if (result == null) {
+                    result = Collections.unmodifiableList(scan(lookup != null ? lookup : MethodHandles.lookup()));
+                    bindings = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<Binding> scan(MethodHandles.Lookup lookup) {
+        List<Binding> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Class<?> type = actorType; type != null && type != Object.class; type = type.getSuperclass()) {
+            Method[] methods = type.getDeclaredMethods();
+            // getDeclaredMethods 的顺序不确定，排序后注册顺序（及冲突时的覆盖关系）才稳定
+            Arrays.sort(methods, Comparator.comparing(Method::toString));
+            for (Method method : methods) {
+                ActorHandler annotation = method.getAnnotation(ActorHandler.class);
+                if (annotation == null || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                // 子类覆盖的方法只注册一次
+                if (seen.add(method.getName() + Arrays.toString(method.getParameterTypes()))) {
+                    result.add(bind(method, annotation, lookup));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Binding bind(Method method, ActorHandler annotation, MethodHandles.Lookup lookup) {
+        if (Modifier.isStatic(method.getModifiers())) {
+            throw invalid(method, "must be an instance method");
+        }
+        if (method.getParameterCount() != 1 || method.getParameterTypes()[0].isPrimitive()) {
+            throw invalid(method, "must take exactly one non-primitive parameter");
+        }
+        if (method.getReturnType() == void.class) {
+            throw invalid(method, "must return a result");
+        }
+        Class<?> inputType = method.getParameterTypes()[0];
+
+        BiFunction<Object, Object, Object> invoker;
+        try {
+            MethodHandle target = lookup.unreflect(method);
+            // 通过子类Lookup访问其他包父类的protected方法时，接收者类型被收窄为Lookup所在的类
+            Class<?> receiverType = target.type().parameterType(0);
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "apply",
+                    INVOKER_FACTORY_TYPE,
+                    INVOKER_ERASED_TYPE,
+                    target,
+                    MethodType.methodType(boxed(method.getReturnType()), receiverType, inputType));
+            @SuppressWarnings("unchecked")
+            BiFunction<Object, Object, Object> created = (BiFunction<Object, Object, Object>) site.getTarget().invoke();
+            invoker = created;
+        } catch (IllegalAccessException e) {
+            throw invalid(method, "is not accessible; make it public or pass MethodHandles.lookup() "
+                    + "from the actor class to matchAnnotated");
+        } catch (Throwable e) {
+            throw new IllegalArgumentException("Cannot bind @ActorHandler method " + method, e);
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (String key : annotation.keys()) {
+            if (key != null && !key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        Set<Enum<?>> enums = new LinkedHashSet<>();
+        if (annotation.enums().length > 0) {
+            if (annotation.enumType() == ActorHandler.NoEnum.class) {
+                throw invalid(method, "declares enums without enumType");
+            }
+            for (String name : annotation.enums()) {
+                enums.add(enumConstant(annotation.enumType(), name));
+            }
+        }
+        String name = method.getDeclaringClass().getName() + "#" + method.getName();
+        return new Binding(name, inputType, annotation.byClass(), keys, enums, annotation.priority(), invoker);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Enum<?> enumConstant(Class<? extends Enum<?>> enumType, String name) {
+        return Enum.valueOf((Class) enumType, name);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static IllegalArgumentException invalid(Method method, String reason) {
+        return new IllegalArgumentException("@ActorHandler method " + method + " " + reason);
+    }
+
+    /**
+     * 单个handler方法的绑定结果
+     */
+    static final class Binding {
+        private final String name;
+        private final Class<?> inputType;
+        private final boolean byClass;
+        private final Set<String> keys;
+        private final Set<Enum<?>> enums;
+        private final MessagePriority priority;
+        private final BiFunction<Object, Object, Object> invoker;
+
+        private Binding(
+                String name,
+                Class<?> inputType,
+                boolean byClass,
+                Set<String> keys,
+                Set<Enum<?>> enums,
+                MessagePriority priority,
+                BiFunction<Object, Object, Object> invoker) {
+            this.name = name;
+            this.inputType = inputType;
+            this.byClass = byClass;
+            this.keys = Collections.unmodifiableSet(keys);
+            this.enums = Collections.unmodifiableSet(enums);
+            this.priority = priority;
+            this.invoker = invoker;
+        }
+
+        /**
+         * 声明类#方法名，用作指标名称
+         */
+        String getName() {
+            return name;
+        }
+
+        Class<?> getInputType() {
+            return inputType;
+        }
+
+        boolean isByClass() {
+            return byClass;
+        }
+
+        Set<String> getKeys() {
+            return keys;
+        }
+
+        Set<Enum<?>> getEnums() {
+            return enums;
+        }
+
+        MessagePriority getPriority() {
+            return priority;
+        }
+
+        /**
+         * (actor, input) -> result
+         */
+        BiFunction<Object, Object, Object> getInvoker() {
+            return invoker;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.dopkit.actor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界无锁队列（Vyukov 环形数组）
+ * 每个槽位带一个序号：生产者对 tail 做一次 CAS 抢到槽位后写入元素，再以 lazySet 发布序号；
+ * 消费者同样以一次 CAS 推进 head。邮箱中常规消费者只有一个，但 DROP_OLDEST 溢出策略下生产者也会出队淘汰最旧的消息，
+ * 因此出队同样支持并发。容量向上取整为2的幂。
+ *
+ * @param <E> 元素类型
+ */
+final class BoundedArrayQueue<E> {
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    BoundedArrayQueue(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + requestedCapacity);
+        }
+        if (requestedCapacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity too large: " + requestedCapacity);
+        }
+        int capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.buffer = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 入队
+     *
+     * @return 队列已满时返回false
+     */
+    boolean offer(E element) {
+        for (;;) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (available < 0) {
+                return false;
+            }
+            // available > 0：其他生产者已抢到该位置，重读 tail
+        }
+    }
+
+    /**
+     * 出队
+     *
+     * @return 队列为空（或生产者尚未发布）时返回null
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        for (;;) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long available = sequences.get(index) - (position + 1);
+            if (available == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = (E) buffer[index];
+                    buffer[index] = null;
+                    sequences.lazySet(index, position + buffer.length);
+                    return element;
+                }
+            } else if (available < 0) {
+                return null;
+            }
+            // available > 0：其他消费者已取走该位置，重读 head
+        }
+    }
+
+    /**
+     * 生产者已占用的槽位数，包含尚未发布的元素
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, buffer.length));
+    }
+
+    boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+}
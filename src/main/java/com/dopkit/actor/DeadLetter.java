@@ -0,0 +1,40 @@
+package com.dopkit.actor;
+
+/**
+ * 因邮箱已满被转入死信的消息
+ */
+public final class DeadLetter {
+
+    private final IActor<?> actor;
+    private final Object route;
+    private final Object input;
+
+    DeadLetter(IActor<?> actor, Object route, Object input) {
+        this.actor = actor;
+        this.route = route;
+        this.input = input;
+    }
+
+    /**
+     * 目标Actor
+     */
+    public IActor<?> getActor() {
+        return actor;
+    }
+
+    /**
+     * RouteKey / Command 字符串或路由枚举；按Class分发的消息为null
+     */
+    public Object getRoute() {
+        return route;
+    }
+
+    public Object getInput() {
+        return input;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetter{actor=" + actor.getClass().getName() + ", route=" + route + ", input=" + input + "}";
+    }
+}
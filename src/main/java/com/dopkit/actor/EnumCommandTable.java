@@ -0,0 +1,101 @@
+package com.dopkit.actor;
+
+import com.dopkit.dispatch.CaseFoldedKeyTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 机制5的框架级命令表
+ * 创建时对每个命令枚举常量调用一次 handlerExtractor，结果按 ordinal() 存入数组；
+ * 命令字符串到枚举的转换使用预先建立的名称表（可忽略大小写），不调用 valueOf、不抛异常。
+ * 运行时 callByCommand 只需一次名称查找加一次数组读取。
+ *
+ * <pre>{@code
+ * .registerCommandTable(
+ *     EnumCommandTable.ofIgnoreCase(UserCommandType.class, UserCommandHandlerTable::getHandlerFunction),
+ *     (cmd, input) -> Result.fail("Unknown command: " + cmd))
+ * }</pre>
+ *
+ * @param <E> 命令枚举类型
+ * @param <TResult> 结果类型
+ */
+public final class EnumCommandTable<E extends Enum<E>, TResult> {
+
+    private final Class<E> commandType;
+    private final Map<String, E> commandsByName;
+    private final CaseFoldedKeyTable<E> commandsIgnoringCase;
+    private final Function<Object, TResult>[] handlers;
+
+    private EnumCommandTable(
+            Class<E> commandType,
+            boolean ignoreCase,
+            Function<E, Function<Object, TResult>> handlerExtractor) {
+        E[] constants = commandType.getEnumConstants();
+        this.commandType = commandType;
+        this.commandsByName = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        Function<Object, TResult>[] handlerTable = (Function<Object, TResult>[]) new Function<?, ?>[constants.length];
+        this.handlers = handlerTable;
+        for (E constant : constants) {
+            commandsByName.put(constant.name(), constant);
+            handlers[constant.ordinal()] = handlerExtractor.apply(constant);
+        }
+        this.commandsIgnoringCase = ignoreCase ? new CaseFoldedKeyTable<>(commandsByName) : null;
+    }
+
+    /**
+     * 按枚举常量名精确匹配命令
+     *
+     * @param handlerExtractor 从枚举中提取handler，未实现的命令返回null
+     */
+    public static <E extends Enum<E>, TResult> EnumCommandTable<E, TResult> of(
+            Class<E> commandType,
+            Function<E, Function<Object, TResult>> handlerExtractor) {
+        return create(commandType, false, handlerExtractor);
+    }
+
+    /**
+     * 按枚举常量名忽略大小写匹配命令
+     *
+     * @param handlerExtractor 从枚举中提取handler，未实现的命令返回null
+     */
+    public static <E extends Enum<E>, TResult> EnumCommandTable<E, TResult> ofIgnoreCase(
+            Class<E> commandType,
+            Function<E, Function<Object, TResult>> handlerExtractor) {
+        return create(commandType, true, handlerExtractor);
+    }
+
+    private static <E extends Enum<E>, TResult> EnumCommandTable<E, TResult> create(
+            Class<E> commandType,
+            boolean ignoreCase,
+            Function<E, Function<Object, TResult>> handlerExtractor) {
+        Objects.requireNonNull(commandType, "commandType");
+        Objects.requireNonNull(handlerExtractor, "handlerExtractor");
+        return new EnumCommandTable<>(commandType, ignoreCase, handlerExtractor);
+    }
+
+    /**
+     * 命令字符串转枚举，无法识别时返回null
+     */
+    public E toCommand(String command) {
+        E commandEnum = commandsByName.get(command);
+        if (commandEnum == null && commandsIgnoringCase != null) {
+            commandEnum = commandsIgnoringCase.get(command);
+        }
+        return commandEnum;
+    }
+
+    /**
+     * 命令对应的handler，未实现时返回null
+     */
+    public Function<Object, TResult> getHandler(E command) {
+        return command == null ? null : handlers[command.ordinal()];
+    }
+
+    public Class<E> getCommandType() {
+        return commandType;
+    }
+}
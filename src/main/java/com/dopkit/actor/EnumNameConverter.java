@@ -0,0 +1,71 @@
+package com.dopkit.actor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 内置的枚举名称转换器（机制4）
+ * 描述 RouteKey 与枚举常量的对应关系：常量名本身、可选的忽略大小写以及额外别名。
+ * 与 registerEnumConverter 的自定义 lambda 不同，它在 ActorRouteBuilder.build() 时被展开为
+ * RouteKey -> handler 的直接映射表，运行时只做一次哈希查找，不调用 valueOf、不抛异常。
+ *
+ * <pre>{@code
+ * .registerEnumNames(EnumNameConverter.of(UserApiKey.class)
+ *         .ignoreCase()
+ *         .alias("find", UserApiKey.SEARCH))
+ * }</pre>
+ *
+ * @param <E> 枚举类型
+ */
+public final class EnumNameConverter<E extends Enum<E>> {
+
+    private final Class<E> enumClass;
+    private final Map<String, E> aliases = new LinkedHashMap<>();
+    private boolean ignoreCase;
+
+    private EnumNameConverter(Class<E> enumClass) {
+        this.enumClass = enumClass;
+    }
+
+    /**
+     * 按常量名精确匹配（区分大小写）
+     */
+    public static <E extends Enum<E>> EnumNameConverter<E> of(Class<E> enumClass) {
+        return new EnumNameConverter<>(Objects.requireNonNull(enumClass, "enumClass"));
+    }
+
+    /**
+     * 常量名与别名均忽略大小写匹配（按 String.equalsIgnoreCase 的规则折叠）
+     */
+    public EnumNameConverter<E> ignoreCase() {
+        this.ignoreCase = true;
+        return this;
+    }
+
+    /**
+     * 注册别名，别名与常量名冲突时以常量名为准
+     */
+    public EnumNameConverter<E> alias(String key, E value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("alias must not be empty");
+        }
+        aliases.put(key, value);
+        return this;
+    }
+
+    public Class<E> getEnumClass() {
+        return enumClass;
+    }
+
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    public Map<String, E> getAliases() {
+        return Collections.unmodifiableMap(aliases);
+    }
+}
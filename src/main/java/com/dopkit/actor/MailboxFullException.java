@@ -0,0 +1,26 @@
+package com.dopkit.actor;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 消息因邮箱已满未被处理
+ * 继承 RejectedExecutionException，按邮箱已满捕获 RejectedExecutionException 的调用方无需修改。
+ */
+public class MailboxFullException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final MailboxOverflowPolicy policy;
+
+    public MailboxFullException(String message, MailboxOverflowPolicy policy) {
+        super(message);
+        this.policy = policy;
+    }
+
+    /**
+     * 生效的溢出策略
+     */
+    public MailboxOverflowPolicy getPolicy() {
+        return policy;
+    }
+}
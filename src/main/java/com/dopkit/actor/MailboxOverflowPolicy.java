@@ -0,0 +1,34 @@
+package com.dopkit.actor;
+
+/**
+ * 邮箱已满时 tell / ask 的处理方式（offer 不受影响，始终立即返回false）
+ * 被丢弃或转入死信的 ask，其 future 以 {@link MailboxFullException} 异常完成。
+ */
+public enum MailboxOverflowPolicy {
+
+    /**
+     * 立即失败：tell 抛出 {@link MailboxFullException}，ask 返回以该异常完成的future
+     */
+    FAIL,
+
+    /**
+     * 阻塞生产者直到有空位或超时（ActorMailboxConfig.blockTimeout）；
+     * 在本Actor自己的处理线程上（如向自己 tell）不会阻塞，直接按 FAIL 处理
+     */
+    BLOCK,
+
+    /**
+     * 丢弃新消息
+     */
+    DROP_NEWEST,
+
+    /**
+     * 淘汰邮箱中最旧的消息，为新消息腾出位置
+     */
+    DROP_OLDEST,
+
+    /**
+     * 新消息交给死信处理器（ActorMailboxConfig.deadLetters）
+     */
+    DEAD_LETTER
+}
@@ -0,0 +1,22 @@
+package com.dopkit.actor;
+
+/**
+ * 邮箱消息的优先级
+ * 在 ActorRouteBuilder 中随handler注册声明（priority / commandPriority / {@code @ActorHandler(priority = ...)}），
+ * 投递时按路由目标确定；未声明的handler为 NORMAL。声明了优先级的Actor，邮箱为每个优先级各准备一个队列，
+ * 按 ActorMailboxConfig 的 strictPriority / weightedPriority 出队。
+ */
+public enum MessagePriority {
+
+    /**
+     * 延迟敏感的交互请求
+     */
+    HIGH,
+
+    NORMAL,
+
+    /**
+     * 批量、可延后的请求
+     */
+    LOW
+}
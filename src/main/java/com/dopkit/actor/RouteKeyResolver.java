@@ -0,0 +1,144 @@
+package com.dopkit.actor;
+
+import com.dopkit.dispatch.BoundedClockCache;
+import com.dopkit.dispatch.CaseFoldedKeyTable;
+import com.dopkit.dispatch.DispatchEngine;
+import com.dopkit.dispatch.DispatchProbe;
+import com.dopkit.dispatch.DispatchStrategyType;
+import com.dopkit.dispatch.EnumHandlerTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * callByRouteKey 的融合解析器，由 ActorRouteBuilder.build() 为每个路由编译一次
+ * 把机制2（直接RouteKey）、机制4（RouteKey -> Enum）和兜底处理器合并为一条查找链：
+ * 1. 一次哈希查找：直接注册的RouteKey与 registerEnumNames 展开的枚举名称合并在同一张表中，直接RouteKey优先
+ * 2. 忽略大小写的枚举名称表
+ * 3. registerEnumConverter 注册的自定义转换器
+ * 第2、3步的结果（包括未命中）记录在有界的 CLOCK 缓存中，重复出现的未知 key 只需一次缓存查找即可落到兜底处理器。
+ * 因此自定义转换器必须是纯函数：同一个 key 总是得到同一个枚举。
+ *
+ * @param <TResult> 结果类型
+ */
+final class RouteKeyResolver<TResult> {
+
+    private final Map<String, Function<Object, TResult>> keyHandlers;
+    private final CaseFoldedKeyTable<Function<Object, TResult>> ignoreCaseKeyHandlers;
+    private final List<Function<String, ? extends Enum<?>>> converters;
+    private final EnumHandlerTable<TResult> enumHandlers;
+    private final BoundedClockCache<String, Function<Object, TResult>> resolvedCache;
+    private final BiFunction<String, Object, TResult> defaultKeyHandler;
+    private final Function<Object, TResult> defaultInputHandler;
+    /**
+     * 路由 DispatchEngine 的 probe，未开启指标时为null
+     */
+    private final DispatchProbe probe;
+
+    /**
+     * 缓存中表示"解析失败，走兜底"的哨兵
+     */
+    private final Function<Object, TResult> unresolved = input -> null;
+
+    RouteKeyResolver(
+            Map<String, Function<Object, TResult>> keyHandlers,
+            Map<String, Function<Object, TResult>> ignoreCaseKeyHandlers,
+            Map<Class<? extends Enum<?>>, Function<String, ? extends Enum<?>>> converters,
+            Map<Enum<?>, Function<Object, TResult>> enumHandlerMap,
+            BiFunction<String, Object, TResult> defaultKeyHandler,
+            Function<Object, TResult> defaultInputHandler,
+            int cacheCapacity,
+            DispatchEngine<TResult> engine) {
+        this.keyHandlers = keyHandlers;
+        this.ignoreCaseKeyHandlers = ignoreCaseKeyHandlers.isEmpty()
+                ? null
+                : new CaseFoldedKeyTable<>(ignoreCaseKeyHandlers);
+        this.converters = new ArrayList<>(converters.values());
+        this.enumHandlers = EnumHandlerTable.of(enumHandlerMap);
+        this.resolvedCache = cacheCapacity > 0 && !this.converters.isEmpty()
+                ? new BoundedClockCache<>(cacheCapacity)
+                : null;
+        this.defaultKeyHandler = defaultKeyHandler;
+        this.defaultInputHandler = defaultInputHandler;
+        this.probe = engine.getProbe();
+    }
+
+    /**
+     * 解析并执行handler（或兜底处理器）；开启指标时调用前后经过路由 DispatchEngine 的 probe，计入 ROUTE_KEY 策略
+     *
+     * @return handler结果；没有任何handler时返回 DispatchEngine.NOT_HANDLED
+     */
+    Object dispatch(String routeKey, Object input) {
+        if (probe == null) {
+            return invoke(routeKey, input);
+        }
+        long start = probe.start();
+        Object result = invoke(routeKey, input);
+        probe.completed(DispatchStrategyType.ROUTE_KEY, start, result != DispatchEngine.NOT_HANDLED);
+        return result;
+    }
+
+    private Object invoke(String routeKey, Object input) {
+        Object result;
+        Function<Object, TResult> handler = resolve(routeKey);
+        if (handler != null) {
+            result = handler.apply(input);
+        } else if (defaultKeyHandler != null) {
+            result = defaultKeyHandler.apply(routeKey, input);
+        } else if (defaultInputHandler != null) {
+            result = defaultInputHandler.apply(input);
+        } else {
+            result = DispatchEngine.NOT_HANDLED;
+        }
+        return result;
+    }
+
+    /**
+     * @return routeKey 对应的handler；返回null表示应交给兜底处理器
+     */
+    Function<Object, TResult> resolve(String routeKey) {
+        Function<Object, TResult> handler = keyHandlers.get(routeKey);
+        if (handler != null) {
+            return handler;
+        }
+        if (resolvedCache == null || routeKey == null) {
+            return resolveSlow(routeKey);
+        }
+        handler = resolvedCache.get(routeKey);
+        if (handler == null) {
+            handler = resolveSlow(routeKey);
+            resolvedCache.put(routeKey, handler != null ? handler : unresolved);
+        }
+        return handler == unresolved ? null : handler;
+    }
+
+    private Function<Object, TResult> resolveSlow(String routeKey) {
+        if (ignoreCaseKeyHandlers != null) {
+            Function<Object, TResult> handler = ignoreCaseKeyHandlers.get(routeKey);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        for (Function<String, ? extends Enum<?>> converter : converters) {
+            Enum<?> enumValue = converter.apply(routeKey);
+            if (enumValue == null) {
+                continue;
+            }
+            Function<Object, TResult> handler = enumHandlers.get(enumValue);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 未知key缓存，未配置自定义转换器时为null
+     */
+    BoundedClockCache<String, Function<Object, TResult>> getResolvedCache() {
+        return resolvedCache;
+    }
+}
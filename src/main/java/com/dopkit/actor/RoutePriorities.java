@@ -0,0 +1,149 @@
+package com.dopkit.actor;
+
+import com.dopkit.dispatch.CaseFoldedKeyTable;
+import com.dopkit.dispatch.DispatchEngine;
+import com.dopkit.dispatch.FrozenKeyMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按消息的路由目标确定优先级，由 ActorRouteBuilder.build() 生成
+ * 构建时把handler优先级展开为按路由键直接查找的优先级表，入队时只做一次查表：
+ * 不在生产者线程上重复解析handler，也不调用用户的转换器。
+ * <ul>
+ *     <li>Class：按输入类型查找，与CLASS分发使用同一个（层级）解析器，每个类型只解析一次</li>
+ *     <li>RouteKey：直接注册的key与 registerEnumNames 展开的枚举名称（含忽略大小写）；只能由自定义转换器识别的key为 NORMAL</li>
+ *     <li>枚举：按 ordinal() 的数组</li>
+ *     <li>命令：按命令枚举常量名忽略大小写匹配；只能由 commandConverter 识别的其他写法为 NORMAL</li>
+ * </ul>
+ * 找不到（将走兜底处理器）时为 NORMAL。
+ *
+ * @param <TResult> 结果类型
+ */
+final class RoutePriorities<TResult> {
+
+    private final ClassValue<MessagePriority> classPriorities;
+    private final MessagePriority nullInputPriority;
+    private final Map<String, MessagePriority> keyPriorities;
+    private final CaseFoldedKeyTable<MessagePriority> ignoreCaseKeyPriorities;
+    private final Class<?>[] enumClasses;
+    private final MessagePriority[][] enumPriorities;
+    private final CaseFoldedKeyTable<MessagePriority> commandPriorities;
+
+    /**
+     * @param handlerPriorities     handler -> 优先级，按引用比较（IdentityHashMap）
+     * @param commandPriorities     命令枚举 -> 优先级
+     * @param keyHandlers           直接RouteKey与展开的枚举名称 -> handler
+     * @param ignoreCaseKeyHandlers 忽略大小写的枚举名称 -> handler
+     * @param enumHandlers          枚举 -> handler
+     * @param engine                路由的分发引擎，用于按类型解析CLASS handler
+     */
+    RoutePriorities(
+            Map<Function<Object, TResult>, MessagePriority> handlerPriorities,
+            Map<Enum<?>, MessagePriority> commandPriorities,
+            Map<String, Function<Object, TResult>> keyHandlers,
+            Map<String, Function<Object, TResult>> ignoreCaseKeyHandlers,
+            Map<Enum<?>, Function<Object, TResult>> enumHandlers,
+            DispatchEngine<TResult> engine) {
+        Map<Function<Object, TResult>, MessagePriority> byHandler = new IdentityHashMap<>(handlerPriorities);
+        this.classPriorities = new ClassValue<MessagePriority>() {
+            @Override
+            protected MessagePriority computeValue(Class<?> type) {
+                return priorityOf(byHandler, engine.resolveClassHandler(type));
+            }
+        };
+        this.nullInputPriority = priorityOf(handlerPriorities, engine.resolveClassHandler(null));
+        // 直接key全部收录（含 NORMAL），保证与分发一样优先于忽略大小写的枚举名称
+        this.keyPriorities = FrozenKeyMap.copyOf(prioritized(handlerPriorities, keyHandlers, true));
+        Map<String, MessagePriority> ignoreCase = prioritized(handlerPriorities, ignoreCaseKeyHandlers, false);
+        this.ignoreCaseKeyPriorities = ignoreCase.isEmpty() ? null : new CaseFoldedKeyTable<>(ignoreCase);
+
+        Map<Class<?>, List<Enum<?>>> byClass = new LinkedHashMap<>();
+        for (Enum<?> constant : enumHandlers.keySet()) {
+            if (constant != null && handlerPriorities.get(enumHandlers.get(constant)) != null) {
+                byClass.computeIfAbsent(constant.getDeclaringClass(), type -> new ArrayList<>()).add(constant);
+            }
+        }
+        this.enumClasses = byClass.keySet().toArray(new Class<?>[0]);
+        this.enumPriorities = new MessagePriority[enumClasses.length][];
+        for (int i = 0; i < enumClasses.length; i++) {
+            enumPriorities[i] = new MessagePriority[enumClasses[i].getEnumConstants().length];
+            for (Enum<?> constant : byClass.get(enumClasses[i])) {
+                enumPriorities[i][constant.ordinal()] = handlerPriorities.get(enumHandlers.get(constant));
+            }
+        }
+
+        Map<String, MessagePriority> commandNames = new HashMap<>();
+        commandPriorities.forEach((command, priority) -> commandNames.put(command.name(), priority));
+        this.commandPriorities = commandNames.isEmpty() ? null : new CaseFoldedKeyTable<>(commandNames);
+    }
+
+    private static <TResult> MessagePriority priorityOf(
+            Map<Function<Object, TResult>, MessagePriority> handlerPriorities, Function<Object, TResult> handler) {
+        MessagePriority priority = handler == null ? null : handlerPriorities.get(handler);
+        return priority == null ? MessagePriority.NORMAL : priority;
+    }
+
+    private static <TResult> Map<String, MessagePriority> prioritized(
+            Map<Function<Object, TResult>, MessagePriority> handlerPriorities,
+            Map<String, Function<Object, TResult>> keyHandlers,
+            boolean includeNormal) {
+        Map<String, MessagePriority> priorities = new LinkedHashMap<>();
+        keyHandlers.forEach((key, handler) -> {
+            MessagePriority priority = priorityOf(handlerPriorities, handler);
+            if (key != null && (includeNormal || priority != MessagePriority.NORMAL)) {
+                priorities.put(key, priority);
+            }
+        });
+        return priorities;
+    }
+
+    MessagePriority of(ActorMessage<TResult> message) {
+        MessagePriority priority;
+        switch (message.getKind()) {
+            case CLASS:
+                Object input = message.getInput();
+                return input == null ? nullInputPriority : classPriorities.get(input.getClass());
+            case ROUTE_KEY:
+                priority = keyPriority((String) message.getRoute());
+                break;
+            case ENUM:
+                priority = enumPriority((Enum<?>) message.getRoute());
+                break;
+            default:
+                priority = commandPriorities == null ? null : commandPriorities.get((String) message.getRoute());
+                break;
+        }
+        return priority == null ? MessagePriority.NORMAL : priority;
+    }
+
+    private MessagePriority keyPriority(String routeKey) {
+        if (routeKey == null) {
+            return null;
+        }
+        MessagePriority priority = keyPriorities.get(routeKey);
+        if (priority == null && ignoreCaseKeyPriorities != null) {
+            priority = ignoreCaseKeyPriorities.get(routeKey);
+        }
+        return priority;
+    }
+
+    private MessagePriority enumPriority(Enum<?> routeEnum) {
+        if (routeEnum == null) {
+            return null;
+        }
+        Class<?> type = routeEnum.getDeclaringClass();
+        for (int i = 0; i < enumClasses.length; i++) {
+            if (enumClasses[i] == type) {
+                return enumPriorities[i][routeEnum.ordinal()];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,430 @@
+package com.dopkit.actor.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译期处理 {@code @ActorHandler}，为每个Actor类生成 {@code com.dopkit.actor.ActorRouteRegistrar}
+ * 生成类中每个handler是直接调用Actor方法的具体 Function 类，自行完成输入类型检查，通过
+ * {@code ActorRouteBuilder.matchChecked} 直接作为路由表项注册：运行时没有反射扫描、没有 LambdaMetafactory 链接，
+ * 也没有包装用的捕获lambda，JIT 看到的是单态的直接调用。
+ * <p>
+ * 只为能从生成类（与Actor同包）访问的Actor生成：Actor类（及其外部类）不能是private；handler方法须为public，
+ * 或声明在同包的类中且不是private；参数类型同样须能从该包访问。
+ * 不满足时给出警告并跳过该类，运行时由 matchAnnotated 回退到反射绑定。方法签名或枚举名错误直接报编译错误。
+ */
+public final class ActorHandlerProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.dopkit.actor.ActorHandler";
+    private static final String NO_ENUM = ANNOTATION + ".NoEnum";
+    private static final String SUFFIX = "_ActorRoutes";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotationType = processingEnv.getElementUtils().getTypeElement(ANNOTATION);
+        if (annotationType == null) {
+            return false;
+        }
+        Set<TypeElement> actorTypes = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotationType)) {
+            if (element.getKind() == ElementKind.METHOD) {
+                actorTypes.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (TypeElement actorType : actorTypes) {
+            if (actorType.getKind() != ElementKind.CLASS || !isAccessible(actorType)) {
+                note(actorType, "not accessible from generated code, handlers are bound reflectively");
+                continue;
+            }
+            List<HandlerMethod> handlers = collect(actorType);
+            if (handlers != null) {
+                write(actorType, handlers);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 收集本类与父类上的handler方法，子类覆盖的方法只保留一次
+     *
+     * @return null 表示存在错误或需要回退到反射
+     */
+    private List<HandlerMethod> collect(TypeElement actorType) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(actorType);
+        List<HandlerMethod> handlers = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        boolean valid = true;
+        for (TypeElement type = actorType; type != null; type = superclass(type)) {
+            List<ExecutableElement> methods = new ArrayList<>();
+            for (Element member : type.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.METHOD && mirror(member) != null) {
+                    methods.add((ExecutableElement) member);
+                }
+            }
+            methods.sort((a, b) -> signature(a).compareTo(signature(b)));
+            for (ExecutableElement method : methods) {
+                if (!seen.add(signature(method))) {
+                    continue;
+                }
+                if (!isReachable(method, pkg)) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "@ActorHandler method " + type.getSimpleName() + "." + method.getSimpleName()
+                                    + " or its parameter type is not accessible from package " + pkg
+                                    + ": " + actorType.getSimpleName() + " is bound reflectively instead of generated",
+                            method);
+                    return null;
+                }
+                HandlerMethod handler = validate(method);
+                if (handler == null) {
+                    valid = false;
+                } else {
+                    handlers.add(handler);
+                }
+            }
+        }
+        return valid ? handlers : null;
+    }
+
+    private HandlerMethod validate(ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+            return error(method, "@ActorHandler method must be an instance method");
+        }
+        if (method.getParameters().size() != 1 || method.getParameters().get(0).asType().getKind().isPrimitive()) {
+            return error(method, "@ActorHandler method must take exactly one non-primitive parameter");
+        }
+        if (method.getReturnType().getKind() == TypeKind.VOID) {
+            return error(method, "@ActorHandler method must return a result");
+        }
+        AnnotationMirror mirror = mirror(method);
+        Map<String, AnnotationValue> values = new LinkedHashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue());
+        }
+        List<String> keys = new ArrayList<>();
+        for (String key : strings(values.get("keys"))) {
+            if (!key.isEmpty() && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        List<String> enums = strings(values.get("enums"));
+        TypeMirror enumType = (TypeMirror) values.get("enumType").getValue();
+        String enumTypeName = processingEnv.getTypeUtils().erasure(enumType).toString();
+        if (!enums.isEmpty()) {
+            if (NO_ENUM.equals(enumTypeName)) {
+                return error(method, "@ActorHandler declares enums without enumType");
+            }
+            Set<String> constants = new HashSet<>();
+            for (Element member : ((DeclaredType) enumType).asElement().getEnclosedElements()) {
+                if (member.getKind() == ElementKind.ENUM_CONSTANT) {
+                    constants.add(member.getSimpleName().toString());
+                }
+            }
+            for (String name : enums) {
+                if (!constants.contains(name)) {
+                    return error(method, "unknown " + enumTypeName + " constant: " + name);
+                }
+            }
+        }
+        boolean byClass = (Boolean) values.get("byClass").getValue();
+        String priority = ((VariableElement) values.get("priority").getValue()).getSimpleName().toString();
+        VariableElement parameter = method.getParameters().get(0);
+        String inputType = processingEnv.getTypeUtils().erasure(parameter.asType()).toString();
+        String declaringType = processingEnv.getElementUtils()
+                .getBinaryName((TypeElement) method.getEnclosingElement()).toString();
+        return new HandlerMethod(declaringType + "#" + method.getSimpleName(),
+                method.getSimpleName().toString(), inputType, keys, enumTypeName, enums, byClass, priority);
+    }
+
+    private void write(TypeElement actorType, List<HandlerMethod> handlers) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(actorType);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String simpleName = flatName(actorType) + SUFFIX;
+        String actorName = processingEnv.getTypeUtils().erasure(actorType.asType()).toString();
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("/**\n * Generated by ").append(ActorHandlerProcessor.class.getName())
+                .append(" from ").append(actorName).append(", do not edit.\n */\n");
+        src.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        src.append("public final class ").append(simpleName)
+                .append(" implements com.dopkit.actor.ActorRouteRegistrar<").append(actorName).append("> {\n\n");
+        src.append("    @Override\n");
+        src.append("    public <TResult> void register(").append(actorName)
+                .append(" actor, com.dopkit.actor.ActorRouteBuilder<TResult> builder) {\n");
+        for (int i = 0; i < handlers.size(); i++) {
+            HandlerMethod handler = handlers.get(i);
+            src.append("        builder.matchChecked(").append(stringLiteral(handler.name)).append(", ")
+                    .append(handler.inputType).append(".class, ")
+                    .append(handler.byClass).append(", ")
+                    .append(keysExpression(handler.keys)).append(", ")
+                    .append(enumsExpression(handler)).append(", ")
+                    .append("new Handler").append(i).append("<TResult>(actor))");
+            if (!"NORMAL".equals(handler.priority)) {
+                src.append(".priority(com.dopkit.actor.MessagePriority.").append(handler.priority).append(')');
+            }
+            src.append(";\n");
+        }
+        src.append("    }\n");
+        for (int i = 0; i < handlers.size(); i++) {
+            HandlerMethod handler = handlers.get(i);
+            src.append("\n    /**\n     * {@code ").append(handler.methodName).append('(')
+                    .append(handler.inputType).append(")}\n     */\n");
+            src.append("    private static final class Handler").append(i)
+                    .append("<TResult> implements java.util.function.Function<Object, TResult> {\n");
+            src.append("        private final ").append(actorName).append(" actor;\n\n");
+            src.append("        private Handler").append(i).append('(').append(actorName)
+                    .append(" actor) {\n            this.actor = actor;\n        }\n\n");
+            src.append("        @Override\n        public TResult apply(Object input) {\n")
+                    .append("            if (input != null && !(input instanceof ").append(handler.inputType).append(")) {\n")
+                    .append("                throw new IllegalArgumentException(\"Handler for ")
+                    .append(handler.inputType).append(" cannot process \" + input.getClass().getName());\n")
+                    .append("            }\n")
+                    .append("            return (TResult) (Object) actor.").append(handler.methodName)
+                    .append("((").append(handler.inputType).append(") input);\n        }\n    }\n");
+        }
+        src.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, actorType);
+            try (Writer writer = file.openWriter()) {
+                writer.write(src.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "cannot write " + qualifiedName + ": " + e.getMessage(), actorType);
+        }
+    }
+
+    private static String keysExpression(List<String> keys) {
+        if (keys.isEmpty()) {
+            return "null";
+        }
+        StringBuilder expression = new StringBuilder("new java.util.HashSet<>(java.util.Arrays.asList(");
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                expression.append(", ");
+            }
+            expression.append(stringLiteral(keys.get(i)));
+        }
+        return expression.append("))").toString();
+    }
+
+    private static String enumsExpression(HandlerMethod handler) {
+        if (handler.enums.isEmpty()) {
+            return "(java.util.Set<" + NO_ENUM + ">) null";
+        }
+        StringBuilder expression = new StringBuilder("java.util.EnumSet.of(");
+        for (int i = 0; i < handler.enums.size(); i++) {
+            if (i > 0) {
+                expression.append(", ");
+            }
+            expression.append(handler.enumType).append('.').append(handler.enums.get(i));
+        }
+        return expression.append(')').toString();
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * 与运行时 ActorRouteRegistrars 一致：去掉包名后，嵌套类名以 _ 连接
+     */
+    private static String flatName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element outer = type.getEnclosingElement(); outer instanceof TypeElement;
+             outer = outer.getEnclosingElement()) {
+            name.insert(0, outer.getSimpleName() + "_");
+        }
+        return name.toString();
+    }
+
+    /**
+     * 生成类与Actor同包，只要Actor类及其外部类都不是private即可访问
+     */
+    private static boolean isAccessible(TypeElement type) {
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 生成类与Actor同包：public 方法总能调用；protected / 包级方法只有声明在同包的类中时才能调用。
+     * 参数类型要做 instanceof 与强转，同样须能从该包访问。
+     */
+    private boolean isReachable(ExecutableElement method, PackageElement pkg) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (!modifiers.contains(Modifier.PUBLIC)
+                && !processingEnv.getElementUtils().getPackageOf(method).equals(pkg)) {
+            return false;
+        }
+        if (method.getParameters().size() != 1) {
+            // 签名错误由 validate 报告
+            return true;
+        }
+        TypeMirror parameter = processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType());
+        while (parameter.getKind() == TypeKind.ARRAY) {
+            parameter = ((ArrayType) parameter).getComponentType();
+        }
+        if (parameter.getKind() != TypeKind.DECLARED) {
+            return true;
+        }
+        for (Element current = ((DeclaredType) parameter).asElement(); current instanceof TypeElement;
+             current = current.getEnclosingElement()) {
+            Set<Modifier> typeModifiers = current.getModifiers();
+            if (typeModifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!typeModifiers.contains(Modifier.PUBLIC)
+                    && !processingEnv.getElementUtils().getPackageOf(current).equals(pkg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private String signature(ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+        for (VariableElement parameter : method.getParameters()) {
+            signature.append(processingEnv.getTypeUtils().erasure(parameter.asType())).append(',');
+        }
+        return signature.append(')').toString();
+    }
+
+    private static AnnotationMirror mirror(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(ANNOTATION)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> strings(AnnotationValue value) {
+        List<String> result = new ArrayList<>();
+        if (value == null) {
+            return result;
+        }
+        Object raw = value.getValue();
+        if (raw instanceof List) {
+            for (Object item : (List<?>) raw) {
+                result.add(String.valueOf(((AnnotationValue) item).getValue()));
+            }
+        } else {
+            result.add(String.valueOf(raw));
+        }
+        return result;
+    }
+
+    private HandlerMethod error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, element.getSimpleName() + " " + message, element);
+    }
+
+    private static final class HandlerMethod {
+        /**
+         * 与反射绑定一致的handler名称：声明类#方法名
+         */
+        private final String name;
+        private final String methodName;
+        private final String inputType;
+        private final List<String> keys;
+        private final String enumType;
+        private final List<String> enums;
+        private final boolean byClass;
+        /**
+         * MessagePriority 常量名
+         */
+        private final String priority;
+
+        private HandlerMethod(
+                String name,
+                String methodName,
+                String inputType,
+                List<String> keys,
+                String enumType,
+                List<String> enums,
+                boolean byClass,
+                String priority) {
+            this.name = name;
+            this.methodName = methodName;
+            this.inputType = inputType;
+            this.keys = keys;
+            this.enumType = enumType;
+            this.enums = enums;
+            this.byClass = byClass;
+            this.priority = priority;
+        }
+    }
+}
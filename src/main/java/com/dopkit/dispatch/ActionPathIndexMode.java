@@ -0,0 +1,34 @@
+package com.dopkit.dispatch;
+
+/**
+ * Lookup structures available to the ACTION_PATH dispatch strategy.
+ */
+public enum ActionPathIndexMode {
+    /**
+     * Probe every rule in registration order (default).
+     */
+    LINEAR,
+
+    /**
+     * Resolve candidate rules through a segment trie so lookup cost depends on path depth rather than
+     * rule count. Overlapping patterns still resolve first-registered-wins.
+     */
+    TRIE,
+
+    /**
+     * Trie lookup where overlapping patterns resolve by specificity instead of registration order.
+     * Segments are compared left to right: literals beat typed variables such as {@code {id:long}}, typed
+     * variables beat plain {@code {var}}, variables beat {@code *} globs and globs beat {@code **}. A pattern
+     * that has ended ranks below a glob but above {@code **}, so {@code /a} beats {@code /a/**}; remaining ties
+     * go to the earlier registration. The priority order is computed once when the index is built.
+     */
+    MOST_SPECIFIC,
+
+    /**
+     * Experimental: all patterns are compiled into one lazily built DFA over path characters, so a lookup
+     * is a single left-to-right scan of the path regardless of pattern count or glob backtracking.
+     * Overlapping patterns resolve first-registered-wins. Falls back to {@link #TRIE} for matchers with a
+     * multi-character separator.
+     */
+    DFA
+}
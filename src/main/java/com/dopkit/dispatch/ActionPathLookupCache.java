@@ -0,0 +1,96 @@
+package com.dopkit.dispatch;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Optional hot-path cache for ACTION_PATH dispatch, keyed by (action, path).
+ * <p>
+ * An entry remembers the first rule whose action mode and pattern accept the request, together with the
+ * extracted {@link PathMatchResult}; requests no rule accepts are cached as negative entries. Handlers
+ * still run on every dispatch and may decline, in which case the remaining rules are probed as usual.
+ * Entries are tied to the compiled rule table that produced them, so registering routes (which rebuilds
+ * the table) invalidates them even if a concurrent dispatch races with {@link #invalidate()}.
+ */
+public final class ActionPathLookupCache {
+    private final BoundedClockCache<Key, Lookup> cache;
+
+    public ActionPathLookupCache(int capacity) {
+        this.cache = new BoundedClockCache<>(capacity);
+    }
+
+    /**
+     * @param current accepts entries produced by the calling rule table; stale entries count as misses
+     */
+    Lookup get(Object action, String path, Predicate<Lookup> current) {
+        return cache.get(new Key(action, path), current);
+    }
+
+    void put(Object action, String path, Lookup lookup) {
+        cache.put(new Key(action, path), lookup);
+    }
+
+    public void invalidate() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int getCapacity() {
+        return cache.getCapacity();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Resolved lookup; {@code ruleIndex < 0} marks a negative entry.
+     */
+    static final class Lookup {
+        final Object table;
+        final int ruleIndex;
+        final PathMatchResult matchResult;
+
+        Lookup(Object table, int ruleIndex, PathMatchResult matchResult) {
+            this.table = table;
+            this.ruleIndex = ruleIndex;
+            this.matchResult = matchResult;
+        }
+    }
+
+    private static final class Key {
+        private final Object action;
+        private final String path;
+        private final int hash;
+
+        private Key(Object action, String path) {
+            this.action = action;
+            this.path = path;
+            this.hash = 31 * Objects.hashCode(action) + Objects.hashCode(path);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && Objects.equals(action, other.action) && Objects.equals(path, other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.dopkit.dispatch;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, compiled view of an ACTION_PATH rule list.
+ * <p>
+ * Built once from a rule snapshot. In {@link ActionPathIndexMode#LINEAR} mode only the rules whose action
+ * mode accepts the request action (see {@link ActionRuleBuckets}) are path-matched; in
+ * {@link ActionPathIndexMode#TRIE} mode the candidate rules for a
+ * path are resolved through a {@link PathSegmentTrie} and then confirmed in registration order. In
+ * {@link ActionPathIndexMode#MOST_SPECIFIC} mode the rules are first sorted by specificity (stable, so
+ * ties keep registration order) and the trie indexes that priority order instead.
+ * {@link ActionPathIndexMode#DFA} runs a {@link PathDfa} built over all patterns once per lookup and walks its
+ * accepting set; rules the DFA decides exactly are not matched again.
+ */
+final class ActionPathRuleTable<TResult> {
+    private final PathActionMatchRule<TResult, ?>[] rules;
+    /**
+     * Pattern of each rule compiled for the table's matcher, resolved once per table.
+     */
+    private final CompiledPathPattern[] patterns;
+    private final PathCandidateIndex pathIndex;
+    private final PathDfa dfa;
+    private final ActionRuleBuckets actionBuckets;
+    /**
+     * Accepts lookup cache entries resolved by this table, created once so the cached path does not allocate.
+     */
+    private final Predicate<ActionPathLookupCache.Lookup> ownLookup = lookup -> lookup.table == this;
+
+    ActionPathRuleTable(
+            AntPathMatcher matcher,
+            List<? extends PathActionMatchRule<TResult, ?>> rules,
+            ActionPathIndexMode mode) {
+        @SuppressWarnings("unchecked")
+        PathActionMatchRule<TResult, ?>[] ruleArray =
+                (PathActionMatchRule<TResult, ?>[]) rules.toArray(new PathActionMatchRule<?, ?>[0]);
+        this.rules = ruleArray;
+        if (mode == ActionPathIndexMode.MOST_SPECIFIC) {
+            // Arrays.sort on objects is stable, equal specificity keeps registration order
+            Arrays.sort(this.rules, Comparator.comparing(
+                    (PathActionMatchRule<TResult, ?> rule) -> rule.compiledFor(matcher),
+                    CompiledPathPattern::compareSpecificity));
+        }
+        this.patterns = new CompiledPathPattern[this.rules.length];
+        for (int i = 0; i < this.rules.length; i++) {
+            patterns[i] = this.rules[i].compiledFor(matcher);
+        }
+        if (mode != ActionPathIndexMode.LINEAR) {
+            List<CompiledPathPattern> patternList = Arrays.asList(patterns);
+            String separator = matcher.getPathSeparator();
+            // the DFA walks single characters, multi-character separators keep the segment trie
+            if (mode == ActionPathIndexMode.DFA && separator.length() == 1) {
+                this.dfa = new PathDfa(patternList, separator);
+                this.pathIndex = null;
+            } else {
+                this.dfa = null;
+                this.pathIndex = new PathSegmentTrie(patternList, separator);
+            }
+            this.actionBuckets = null;
+        } else {
+            this.pathIndex = null;
+            this.dfa = null;
+            this.actionBuckets = new ActionRuleBuckets(this.rules);
+        }
+    }
+
+    /**
+     * With a lookup cache the first accepting rule and its match result are resolved once per
+     * (action, path); only a declining handler falls back to probing the rules after it.
+     *
+     * @param cache optional lookup cache
+     * @return handler result of the first accepting rule, or {@code null} when none handled the context
+     */
+    TResult dispatch(PathActionDispatchContext<?, ?, ?> context, ActionPathLookupCache cache) {
+        if (cache == null) {
+            return dispatchAfter(context, -1);
+        }
+        ActionPathLookupCache.Lookup lookup = cache.get(context.getAction(), context.getPath(), ownLookup);
+        if (lookup == null) {
+            lookup = resolveFirst(context);
+            cache.put(context.getAction(), context.getPath(), lookup);
+        }
+        if (lookup.ruleIndex < 0) {
+            return null;
+        }
+        TResult result = rules[lookup.ruleIndex].invoke(context, lookup.matchResult);
+        return result != null ? result : dispatchAfter(context, lookup.ruleIndex);
+    }
+
+    private TResult dispatchAfter(PathActionDispatchContext<?, ?, ?> context, int after) {
+        if (dfa != null) {
+            String path = context.getPath();
+            for (int index : dfa.match(path)) {
+                if (index > after && rules[index].actionMatches(context.getAction())) {
+                    PathMatchResult matchResult = matchAccepted(index, path);
+                    if (matchResult != null) {
+                        TResult result = rules[index].invoke(context, matchResult);
+                        if (result != null) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+        if (pathIndex == null) {
+            for (int index : actionBuckets.candidates(context.getAction())) {
+                if (index > after) {
+                    TResult result = rules[index].tryHandlePath(patterns[index], context);
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            }
+            return null;
+        }
+        String path = context.getPath();
+        for (int index = pathIndex.next(path, after); index >= 0; index = pathIndex.next(path, index)) {
+            PathActionMatchRule<TResult, ?> rule = rules[index];
+            if (rule.actionMatches(context.getAction())) {
+                TResult result = rule.tryHandlePath(patterns[index], context);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private ActionPathLookupCache.Lookup resolveFirst(PathActionDispatchContext<?, ?, ?> context) {
+        String path = context.getPath();
+        if (dfa != null) {
+            for (int index : dfa.match(path)) {
+                if (rules[index].actionMatches(context.getAction())) {
+                    PathMatchResult matchResult = matchAccepted(index, path);
+                    if (matchResult != null) {
+                        return new ActionPathLookupCache.Lookup(this, index, matchResult);
+                    }
+                }
+            }
+            return new ActionPathLookupCache.Lookup(this, -1, null);
+        }
+        if (pathIndex == null) {
+            for (int index : actionBuckets.candidates(context.getAction())) {
+                PathMatchResult matchResult = patterns[index].matchAndExtract(path);
+                if (matchResult != null) {
+                    return new ActionPathLookupCache.Lookup(this, index, matchResult);
+                }
+            }
+            return new ActionPathLookupCache.Lookup(this, -1, null);
+        }
+        for (int index = pathIndex.next(path, -1); index >= 0; index = pathIndex.next(path, index)) {
+            PathActionMatchRule<TResult, ?> rule = rules[index];
+            if (rule.actionMatches(context.getAction())) {
+                PathMatchResult matchResult = patterns[index].matchAndExtract(path);
+                if (matchResult != null) {
+                    return new ActionPathLookupCache.Lookup(this, index, matchResult);
+                }
+            }
+        }
+        return new ActionPathLookupCache.Lookup(this, -1, null);
+    }
+
+    /**
+     * Confirms a rule the DFA accepted; rules it decides exactly only need their (empty) match result.
+     */
+    private PathMatchResult matchAccepted(int index, String path) {
+        CompiledPathPattern pattern = patterns[index];
+        return dfa.decides(index) ? pattern.matched(path) : pattern.matchAndExtract(path);
+    }
+
+    int size() {
+        return rules.length;
+    }
+}
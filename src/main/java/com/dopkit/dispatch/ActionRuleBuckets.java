@@ -0,0 +1,93 @@
+package com.dopkit.dispatch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-action candidate rule lists precomputed from the IN / NOT_IN action sets of a rule table.
+ * <p>
+ * Every action value mentioned by any rule gets its own ascending array of rule indexes that accept it;
+ * any other action (including {@code null}) can only be accepted by ALL and NOT_IN rules, which share one
+ * array. When every mentioned action is a constant of the same enum type the lookup is an ordinal-indexed
+ * array load, otherwise it is a single hash lookup.
+ */
+final class ActionRuleBuckets {
+    /**
+     * Stand-in for actions no rule mentions.
+     */
+    private static final Object OTHER = new Object();
+
+    private final Class<?> enumType;
+    private final int[][] byOrdinal;
+    private final Map<Object, int[]> byAction;
+    private final int[] otherActions;
+
+    ActionRuleBuckets(PathActionMatchRule<?, ?>[] rules) {
+        Set<Object> mentioned = new LinkedHashSet<>();
+        for (PathActionMatchRule<?, ?> rule : rules) {
+            if (rule.getActions() != null) {
+                mentioned.addAll(rule.getActions());
+            }
+        }
+        this.otherActions = accepting(rules, OTHER);
+        this.enumType = commonEnumType(mentioned);
+        if (enumType != null) {
+            Object[] constants = enumType.getEnumConstants();
+            this.byOrdinal = new int[constants.length][];
+            for (Object constant : constants) {
+                this.byOrdinal[((Enum<?>) constant).ordinal()] =
+                        mentioned.contains(constant) ? accepting(rules, constant) : otherActions;
+            }
+            this.byAction = null;
+        } else {
+            this.byOrdinal = null;
+            this.byAction = new HashMap<>();
+            for (Object action : mentioned) {
+                byAction.put(action, accepting(rules, action));
+            }
+        }
+    }
+
+    /**
+     * @return ascending indexes of rules whose action mode accepts the given action
+     */
+    int[] candidates(Object action) {
+        if (byOrdinal != null) {
+            if (action instanceof Enum && ((Enum<?>) action).getDeclaringClass() == enumType) {
+                return byOrdinal[((Enum<?>) action).ordinal()];
+            }
+            return otherActions;
+        }
+        int[] candidates = byAction.get(action);
+        return candidates != null ? candidates : otherActions;
+    }
+
+    private static int[] accepting(PathActionMatchRule<?, ?>[] rules, Object action) {
+        int[] indexes = new int[rules.length];
+        int count = 0;
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i].actionMatches(action)) {
+                indexes[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    private static Class<?> commonEnumType(Set<Object> actions) {
+        Class<?> type = null;
+        for (Object action : actions) {
+            if (!(action instanceof Enum)) {
+                return null;
+            }
+            Class<?> declaring = ((Enum<?>) action).getDeclaringClass();
+            if (type != null && type != declaring) {
+                return null;
+            }
+            type = declaring;
+        }
+        return type;
+    }
+}
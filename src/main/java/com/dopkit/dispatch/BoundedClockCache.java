@@ -0,0 +1,147 @@
+package com.dopkit.dispatch;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Fixed-capacity concurrent cache with CLOCK (second chance) eviction.
+ * <p>
+ * Lock-free: a hit only sets the entry's reference bit. An insert advances the shared clock hand with an
+ * atomic increment, clearing reference bits until an unreferenced slot is found, and claims that slot with a
+ * CAS, so entries that keep being read stay resident while one-off keys are evicted first and concurrent
+ * misses never wait on each other. Racing inserts of the same key may briefly leave an extra ring slot that
+ * the index no longer points to; the clock evicts it like any unreferenced entry. Hit and miss counts are
+ * kept in {@link LongAdder}s for sizing.
+ *
+ * @param <K> key type
+ * @param <V> value type, must not be {@code null}
+ */
+public final class BoundedClockCache<K, V> {
+    private final int capacity;
+    private final ConcurrentHashMap<K, Entry<K, V>> index;
+    private final AtomicReferenceArray<Entry<K, V>> ring;
+    private final AtomicLong hand = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BoundedClockCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.index = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return cached value, or {@code null} on a miss
+     */
+    public V get(K key) {
+        return get(key, null);
+    }
+
+    /**
+     * @param valid rejects entries the caller can no longer use, e.g. ones computed against an outdated
+     *              source; a rejected entry is counted as a miss. {@code null} accepts every entry
+     * @return cached value, or {@code null} on a miss
+     */
+    public V get(K key, Predicate<? super V> valid) {
+        Entry<K, V> entry = index.get(key);
+        if (entry == null || (valid != null && !valid.test(entry.value))) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        Entry<K, V> existing = index.get(key);
+        if (existing != null) {
+            Entry<K, V> entry = new Entry<>(key, value, existing.slot);
+            if (ring.compareAndSet(existing.slot, existing, entry)) {
+                publish(entry, existing);
+                return;
+            }
+        }
+        while (true) {
+            int slot = (int) (hand.getAndIncrement() % capacity);
+            Entry<K, V> candidate = ring.get(slot);
+            if (candidate != null && candidate.referenced) {
+                candidate.referenced = false;
+                continue;
+            }
+            Entry<K, V> entry = new Entry<>(key, value, slot);
+            if (ring.compareAndSet(slot, candidate, entry)) {
+                if (candidate != null) {
+                    index.remove(candidate.key, candidate);
+                }
+                publish(entry, null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Points the index at a freshly claimed slot; backs out if the slot was reclaimed in the meantime so the
+     * index never holds more than {@code capacity} live entries.
+     */
+    private void publish(Entry<K, V> entry, Entry<K, V> replaced) {
+        if (replaced == null || !index.replace(entry.key, replaced, entry)) {
+            index.put(entry.key, entry);
+        }
+        if (ring.get(entry.slot) != entry) {
+            index.remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * Drops every entry; hit/miss counters are kept. Entries inserted concurrently may survive.
+     */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            Entry<K, V> entry = ring.getAndSet(i, null);
+            if (entry != null) {
+                index.remove(entry.key, entry);
+            }
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final int slot;
+        private volatile boolean referenced;
+
+        private Entry(K key, V value, int slot) {
+            this.key = key;
+            this.value = value;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.dopkit.dispatch;
+
+import com.dopkit.dispatch.DispatchStrategyConfig.ActionPathDispatchConfig;
+import com.dopkit.dispatch.DispatchStrategyConfig.ClassDispatchConfig;
+import com.dopkit.dispatch.DispatchStrategyConfig.CommandDispatchConfig;
+import com.dopkit.dispatch.DispatchStrategyConfig.EnumDispatchConfig;
+import com.dopkit.dispatch.DispatchStrategyConfig.PathDispatchConfig;
+import com.dopkit.dispatch.DispatchStrategyConfig.RouteKeyDispatchConfig;
+import com.dopkit.dispatch.DispatchStrategyConfig.RouteKeyToEnumDispatchConfig;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * {@link DispatchStrategy} implementations of the built-in {@link DispatchStrategyType}s.
+ * <p>
+ * Each strategy copies the fields of its config once, so dispatch does not go back to the
+ * {@link DispatchStrategyConfig} union on every call.
+ */
+final class BuiltinDispatchStrategies {
+
+    private BuiltinDispatchStrategies() {
+    }
+
+    /**
+     * @return strategy for the config's type, or {@code null} when the matching config field is missing
+     */
+    static <TResult> DispatchStrategy<?, TResult> resolve(DispatchStrategyConfig<TResult> config) {
+        switch (config.getType()) {
+            case CLASS:
+                return config.getClassConfig() == null ? null : new ClassStrategy<>(config.getClassConfig());
+            case ROUTE_KEY:
+                return config.getRouteKeyConfig() == null ? null : new RouteKeyStrategy<>(config.getRouteKeyConfig());
+            case ENUM:
+                return config.getEnumConfig() == null ? null : new EnumStrategy<>(config.getEnumConfig());
+            case ROUTE_KEY_TO_ENUM:
+                return config.getRouteKeyToEnumConfig() == null
+                        ? null
+                        : new RouteKeyToEnumStrategy<>(config.getRouteKeyToEnumConfig());
+            case COMMAND_TABLE:
+                return config.getCommandDispatchConfig() == null
+                        ? null
+                        : new CommandStrategy<>(config.getCommandDispatchConfig());
+            case PATH:
+                return config.getPathDispatchConfig() == null ? null : new PathStrategy<>(config.getPathDispatchConfig());
+            case ACTION_PATH:
+                return config.getActionPathDispatchConfig() == null
+                        ? null
+                        : new ActionPathStrategy<>(config.getActionPathDispatchConfig());
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <TResult> DispatchResult<TResult> toResult(Object result) {
+        return result == DispatchEngine.NOT_HANDLED
+                ? DispatchResult.notHandled()
+                : DispatchResult.handled((TResult) result);
+    }
+
+    static final class ClassStrategy<TResult> implements DispatchStrategy<ClassDispatchRequest<TResult>, TResult> {
+        private final Map<Class<?>, Function<Object, TResult>> handlerMap;
+        private final Function<Object, TResult> defaultHandler;
+        private final ClassValue<Function<Object, TResult>> hierarchyHandlers;
+
+        ClassStrategy(ClassDispatchConfig<TResult> config) {
+            this.handlerMap = config.getHandlerMap();
+            this.defaultHandler = config.getDefaultHandler();
+            this.hierarchyHandlers = config.isResolveHierarchy() ? new HierarchyResolver<>(handlerMap) : null;
+        }
+
+        @Override
+        public DispatchResult<TResult> dispatch(ClassDispatchRequest<TResult> request) {
+            return toResult(dispatchInput(request.getInput()));
+        }
+
+        /**
+         * @return handler result, or {@link DispatchEngine#NOT_HANDLED}
+         */
+        Object dispatchInput(Object input) {
+            Function<Object, TResult> handler = handlerFor(input);
+            if (handler != null) {
+                return handler.apply(input);
+            }
+            if (defaultHandler != null) {
+                return defaultHandler.apply(input);
+            }
+            return DispatchEngine.NOT_HANDLED;
+        }
+
+        private Function<Object, TResult> handlerFor(Object input) {
+            return handlerForType(input == null ? null : input.getClass());
+        }
+
+        /**
+         * @param inputType class of the input, {@code null} for a null input
+         * @return handler registered for the class (through the hierarchy when enabled), excluding the default
+         * handler, or {@code null}
+         */
+        Function<Object, TResult> handlerForType(Class<?> inputType) {
+            Function<Object, TResult> handler;
+            if (inputType == null) {
+                handler = handlerMap.get(Void.class);
+            } else if (hierarchyHandlers != null) {
+                handler = hierarchyHandlers.get(inputType);
+            } else {
+                handler = handlerMap.get(inputType);
+            }
+            return handler == HierarchyResolver.NO_HANDLER ? null : handler;
+        }
+    }
+
+    /**
+     * Memoized class-hierarchy lookup: exact class, superclasses nearest first (excluding {@code Object}),
+     * interfaces breadth-first in declaration order starting from the most derived class, then
+     * {@code Object}.
+     */
+    static final class HierarchyResolver<TResult> extends ClassValue<Function<Object, TResult>> {
+        /**
+         * Stored for classes without any applicable handler, {@link ClassValue} entries cannot be absent.
+         */
+        static final Function<Object, Object> NO_HANDLER = input -> null;
+
+        private final Map<Class<?>, Function<Object, TResult>> handlerMap;
+
+        HierarchyResolver(Map<Class<?>, Function<Object, TResult>> handlerMap) {
+            this.handlerMap = handlerMap;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Function<Object, TResult> computeValue(Class<?> type) {
+            Function<Object, TResult> handler = resolve(type);
+            return handler != null ? handler : (Function<Object, TResult>) (Function<?, ?>) NO_HANDLER;
+        }
+
+        private Function<Object, TResult> resolve(Class<?> type) {
+            for (Class<?> current = type; current != null && current != Object.class;
+                    current = current.getSuperclass()) {
+                Function<Object, TResult> handler = handlerMap.get(current);
+                if (handler != null) {
+                    return handler;
+                }
+            }
+            Deque<Class<?>> pending = new ArrayDeque<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                pending.addAll(Arrays.asList(current.getInterfaces()));
+            }
+            Set<Class<?>> visited = new HashSet<>();
+            while (!pending.isEmpty()) {
+                Class<?> candidate = pending.poll();
+                if (!visited.add(candidate)) {
+                    continue;
+                }
+                Function<Object, TResult> handler = handlerMap.get(candidate);
+                if (handler != null) {
+                    return handler;
+                }
+                pending.addAll(Arrays.asList(candidate.getInterfaces()));
+            }
+            return handlerMap.get(Object.class);
+        }
+    }
+
+    static final class RouteKeyStrategy<TResult>
+            implements DispatchStrategy<RouteKeyDispatchRequest<TResult>, TResult> {
+        private final Map<String, Function<Object, TResult>> handlerMap;
+        private final BiFunction<String, Object, TResult> defaultKeyHandler;
+        private final Function<Object, TResult> defaultInputHandler;
+
+        RouteKeyStrategy(RouteKeyDispatchConfig<TResult> config) {
+            this.handlerMap = config.getHandlerMap();
+            this.defaultKeyHandler = config.getDefaultKeyHandler();
+            this.defaultInputHandler = config.getDefaultInputHandler();
+        }
+
+        @Override
+        public DispatchResult<TResult> dispatch(RouteKeyDispatchRequest<TResult> request) {
+            Function<Object, TResult> handler = handlerMap.get(request.getRouteKey());
+            if (handler != null) {
+                return DispatchResult.handled(handler.apply(request.getInput()));
+            }
+            if (request.isApplyDefaultHandlers()) {
+                if (defaultKeyHandler != null) {
+                    return DispatchResult.handled(defaultKeyHandler.apply(request.getRouteKey(), request.getInput()));
+                }
+                if (defaultInputHandler != null) {
+                    return DispatchResult.handled(defaultInputHandler.apply(request.getInput()));
+                }
+            }
+            return DispatchResult.notHandled();
+        }
+    }
+
+    static final class EnumStrategy<TResult> implements DispatchStrategy<EnumDispatchRequest<TResult>, TResult> {
+        private final EnumHandlerTable<TResult> handlers;
+        private final BiFunction<Enum<?>, Object, TResult> defaultEnumHandler;
+        private final Function<Object, TResult> defaultInputHandler;
+
+        EnumStrategy(EnumDispatchConfig<TResult> config) {
+            this.handlers = EnumHandlerTable.of(config.getHandlerMap());
+            this.defaultEnumHandler = config.getDefaultEnumHandler();
+            this.defaultInputHandler = config.getDefaultInputHandler();
+        }
+
+        @Override
+        public DispatchResult<TResult> dispatch(EnumDispatchRequest<TResult> request) {
+            return toResult(dispatchInput(request.getRouteEnum(), request.getInput()));
+        }
+
+        /**
+         * @return handler result, or {@link DispatchEngine#NOT_HANDLED}
+         */
+        Object dispatchInput(Enum<?> routeEnum, Object input) {
+            Function<Object, TResult> handler = handlers.get(routeEnum);
+            if (handler != null) {
+                return handler.apply(input);
+            }
+            if (defaultEnumHandler != null) {
+                return defaultEnumHandler.apply(routeEnum, input);
+            }
+            if (defaultInputHandler != null) {
+                return defaultInputHandler.apply(input);
+            }
+            return DispatchEngine.NOT_HANDLED;
+        }
+    }
+
+    static final class RouteKeyToEnumStrategy<TResult>
+            implements DispatchStrategy<RouteKeyToEnumDispatchRequest<TResult>, TResult> {
+        private final Map<Class<? extends Enum<?>>, Function<String, ? extends Enum<?>>> converters;
+        private final EnumHandlerTable<TResult> enumHandlers;
+        private final Map<String, Function<Object, TResult>> keyHandlerMap;
+        private final CaseFoldedKeyTable<Function<Object, TResult>> ignoreCaseKeyHandlers;
+
+        RouteKeyToEnumStrategy(RouteKeyToEnumDispatchConfig<TResult> config) {
+            this.converters = config.getConverters();
+            this.enumHandlers = EnumHandlerTable.of(config.getEnumHandlerMap());
+            this.keyHandlerMap = config.getKeyHandlerMap() != null
+                    ? new HashMap<>(config.getKeyHandlerMap())
+                    : Collections.emptyMap();
+            this.ignoreCaseKeyHandlers = config.getIgnoreCaseKeyHandlerMap() != null
+                    && !config.getIgnoreCaseKeyHandlerMap().isEmpty()
+                    ? new CaseFoldedKeyTable<>(config.getIgnoreCaseKeyHandlerMap())
+                    : null;
+        }
+
+        @Override
+        public DispatchResult<TResult> dispatch(RouteKeyToEnumDispatchRequest<TResult> request) {
+            Function<Object, TResult> direct = keyHandlerMap.get(request.getRouteKey());
+            if (direct == null && ignoreCaseKeyHandlers != null) {
+                direct = ignoreCaseKeyHandlers.get(request.getRouteKey());
+            }
+            if (direct != null) {
+                return DispatchResult.handled(direct.apply(request.getInput()));
+            }
+            for (Function<String, ? extends Enum<?>> converter : converters.values()) {
+                Enum<?> enumValue = converter.apply(request.getRouteKey());
+                if (enumValue == null) {
+                    continue;
+                }
+                Function<Object, TResult> handler = enumHandlers.get(enumValue);
+                if (handler != null) {
+                    return DispatchResult.handled(handler.apply(request.getInput()));
+                }
+            }
+            return DispatchResult.notHandled();
+        }
+    }
+
+    static final class CommandStrategy<TResult> implements DispatchStrategy<CommandDispatchRequest<TResult>, TResult> {
+        private final Function<String, ? extends Enum<?>> commandConverter;
+        private final Function<Enum<?>, Function<Object, TResult>> handlerExtractor;
+        private final BiFunction<String, Object, TResult> defaultHandler;
+
+        CommandStrategy(CommandDispatchConfig<TResult> config) {
+            this.commandConverter = config.getCommandConverter();
+            this.handlerExtractor = config.getHandlerExtractor();
+            this.defaultHandler = config.getDefaultHandler();
+        }
+
+        @Override
+        public DispatchResult<TResult> dispatch(CommandDispatchRequest<TResult> request) {
+            Enum<?> commandEnum = commandConverter != null ? commandConverter.apply(request.getCommand()) : null;
+            if (commandEnum != null && handlerExtractor != null) {
+                Function<Object, TResult> handler = handlerExtractor.apply(commandEnum);
+                if (handler != null) {
+                    return DispatchResult.handled(handler.apply(request.getInput()));
+                }
+            }
+            if (defaultHandler != null) {
+                return DispatchResult.handled(defaultHandler.apply(request.getCommand(), request.getInput()));
+            }
+            return DispatchResult.notHandled();
+        }
+    }
+
+    static final class PathStrategy<TResult> implements DispatchStrategy<PathDispatchRequest<TResult>, TResult> {
+        private final List<PathDispatchHandler<TResult>> handlers;
+
+        PathStrategy(PathDispatchConfig<TResult> config) {
+            this.handlers = config.getHandlers();
+        }
+
+        @Override
+        public DispatchResult<TResult> dispatch(PathDispatchRequest<TResult> request) {
+            for (PathDispatchHandler<TResult> handler : handlers) {
+                TResult result = handler.tryHandle(request.getContext());
+                if (result != null) {
+                    return DispatchResult.handled(result);
+                }
+            }
+            return DispatchResult.notHandled();
+        }
+    }
+
+    static final class ActionPathStrategy<TResult>
+            implements DispatchStrategy<ActionPathDispatchRequest<TResult>, TResult> {
+        private final ActionPathDispatchConfig<TResult> config;
+        private final ActionPathLookupCache lookupCache;
+
+        ActionPathStrategy(ActionPathDispatchConfig<TResult> config) {
+            this.config = config;
+            this.lookupCache = config.getLookupCache();
+        }
+
+        @Override
+        public DispatchResult<TResult> dispatch(ActionPathDispatchRequest<TResult> request) {
+            // the rule table is compiled on first use unless the config was precompiled
+            TResult result = config.getRuleTable().dispatch(request.getContext(), lookupCache);
+            return result != null ? DispatchResult.handled(result) : DispatchResult.notHandled();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.dopkit.dispatch;
+
+import java.util.Map;
+
+/**
+ * Read-only open-addressing table keyed by strings compared with {@link String#equalsIgnoreCase}.
+ * <p>
+ * Hashes are computed over case-folded characters on the fly, so a lookup neither allocates a normalized
+ * copy of the key nor walks a tree; it is one probe sequence of {@code regionMatches(true, ...)}.
+ */
+public final class CaseFoldedKeyTable<V> {
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    /**
+     * @param entries source entries; when keys collide ignoring case, the first in iteration order wins
+     */
+    public CaseFoldedKeyTable(Map<String, V> entries) {
+        int capacity = Integer.highestOneBit(Math.max(entries.size() * 2, 2) - 1) << 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            int slot = foldedHash(key) & mask;
+            while (keys[slot] != null && !keys[slot].equalsIgnoreCase(key)) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) {
+                keys[slot] = key;
+                values[slot] = entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * @return value whose key equals {@code key} ignoring case, or {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = foldedHash(key) & mask;
+        String candidate;
+        while ((candidate = keys[slot]) != null) {
+            if (candidate.length() == key.length() && candidate.regionMatches(true, 0, key, 0, key.length())) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Folds the same way as {@link String#regionMatches(boolean, int, String, int, int)}: two characters
+     * are equal ignoring case iff their upper-cased lower-case forms are equal.
+     */
+    private static int foldedHash(String key) {
+        int h = 0;
+        for (int i = 0; i < key.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+}
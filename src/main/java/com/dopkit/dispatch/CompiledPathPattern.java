@@ -0,0 +1,442 @@
+package com.dopkit.dispatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Ant-style path pattern compiled once into classified segments.
+ * <p>
+ * Segments are split and classified (literal / glob / variable / {@code **}) at construction time and
+ * every variable name is assigned a slot index. Matching walks the incoming path by offsets without splitting
+ * it. Semantics are identical to {@link AntPathMatcher}.
+ * <p>
+ * A variable may declare a type after a colon: {@code {id:long}}, {@code {n:int}}, {@code {key:uuid}} (canonical
+ * 8-4-4-4-12 hex form) or any other text as a regular expression, e.g. {@code {name:[a-z]+}}. Segments that
+ * do not conform fail the match, and numeric and UUID values are kept in primitive form, see
+ * {@link PathMatchResult#getLong(String)}.
+ */
+public final class CompiledPathPattern {
+
+    enum SegmentKind {
+        /**
+         * Plain text compared with {@link String#equals}.
+         */
+        LITERAL,
+
+        /**
+         * Text containing {@code ?} or {@code *} wildcards.
+         */
+        GLOB,
+
+        /**
+         * {@code {name}} capture, matches any single segment.
+         */
+        VARIABLE,
+
+        /**
+         * {@code **}, matches zero or more segments.
+         */
+        DOUBLE_WILDCARD
+    }
+
+    enum VariableType {
+        STRING,
+        LONG,
+        INT,
+        UUID,
+        REGEX
+    }
+
+    private final String pattern;
+    private final String pathSeparator;
+    private final String[] segments;
+    private final SegmentKind[] kinds;
+    private final int[] slots;
+    private final VariableType[] types;
+    private final Pattern[] regexes;
+    private final String[] variableNames;
+    private final VariableType[] slotTypes;
+    private final boolean hasPrimitiveSlots;
+    private final int firstDoubleWildcard;
+    private final int lastDoubleWildcard;
+
+    CompiledPathPattern(String pattern, String pathSeparator) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern must not be null");
+        }
+        this.pattern = pattern;
+        this.pathSeparator = pathSeparator;
+        this.segments = AntPathMatcher.tokenize(pattern, pathSeparator);
+        this.kinds = new SegmentKind[segments.length];
+        this.slots = new int[segments.length];
+        this.types = new VariableType[segments.length];
+        this.regexes = new Pattern[segments.length];
+        List<String> names = new ArrayList<>();
+        List<VariableType> declaredTypes = new ArrayList<>();
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            slots[i] = -1;
+            if ("**".equals(segment)) {
+                kinds[i] = SegmentKind.DOUBLE_WILDCARD;
+            } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                kinds[i] = SegmentKind.VARIABLE;
+                String name = segment.substring(1, segment.length() - 1);
+                int colon = name.indexOf(':');
+                types[i] = VariableType.STRING;
+                if (colon >= 0) {
+                    types[i] = variableType(name.substring(colon + 1));
+                    if (types[i] == VariableType.REGEX) {
+                        regexes[i] = Pattern.compile(name.substring(colon + 1));
+                    }
+                    name = name.substring(0, colon);
+                }
+                // a repeated name shares its slot, the last capture wins like the tokenizing matcher
+                int slot = names.indexOf(name);
+                if (slot < 0) {
+                    slot = names.size();
+                    names.add(name);
+                    declaredTypes.add(types[i]);
+                } else if (declaredTypes.get(slot) != types[i]) {
+                    // conflicting declarations keep the string form, values are parsed on access
+                    declaredTypes.set(slot, VariableType.STRING);
+                }
+                slots[i] = slot;
+            } else if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0) {
+                kinds[i] = SegmentKind.GLOB;
+            } else {
+                kinds[i] = SegmentKind.LITERAL;
+            }
+        }
+        this.variableNames = names.toArray(new String[0]);
+        this.slotTypes = declaredTypes.toArray(new VariableType[0]);
+        boolean primitive = false;
+        for (VariableType type : slotTypes) {
+            primitive |= type == VariableType.LONG || type == VariableType.INT || type == VariableType.UUID;
+        }
+        this.hasPrimitiveSlots = primitive;
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == SegmentKind.DOUBLE_WILDCARD) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        this.firstDoubleWildcard = first;
+        this.lastDoubleWildcard = last;
+    }
+
+    private static VariableType variableType(String spec) {
+        switch (spec) {
+            case "long":
+                return VariableType.LONG;
+            case "int":
+                return VariableType.INT;
+            case "uuid":
+                return VariableType.UUID;
+            default:
+                return VariableType.REGEX;
+        }
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String getPathSeparator() {
+        return pathSeparator;
+    }
+
+    /**
+     * @return number of {@code {var}} captures declared by this pattern
+     */
+    public int getVariableCount() {
+        return variableNames.length;
+    }
+
+    /**
+     * @return variable name bound to the given slot
+     */
+    public String getVariableName(int slot) {
+        return variableNames[slot];
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    String segment(int index) {
+        return segments[index];
+    }
+
+    SegmentKind kind(int index) {
+        return kinds[index];
+    }
+
+    /**
+     * @return declared type of a variable segment, or {@code null} for other segment kinds
+     */
+    VariableType variableType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Orders patterns from most to least specific, see {@link ActionPathIndexMode#MOST_SPECIFIC}.
+     */
+    static int compareSpecificity(CompiledPathPattern left, CompiledPathPattern right) {
+        int longest = Math.max(left.segments.length, right.segments.length);
+        for (int i = 0; i < longest; i++) {
+            int diff = left.specificityRank(i) - right.specificityRank(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Rank of the segment at {@code index}; a pattern that has already ended ranks between a {@code *} glob and
+     * {@code **}, so {@code /a} beats {@code /a/**} while {@code /a/b} still beats {@code /a}.
+     */
+    private int specificityRank(int index) {
+        if (index >= kinds.length) {
+            return 4;
+        }
+        switch (kinds[index]) {
+            case LITERAL:
+                return 0;
+            case VARIABLE:
+                return types[index] == VariableType.STRING ? 2 : 1;
+            case GLOB:
+                return 3;
+            default:
+                return 5;
+        }
+    }
+
+    public boolean matches(CharSequence path) {
+        return doMatch(path, null);
+    }
+
+    /**
+     * Match and extract variables.
+     * <p>
+     * The path is walked once in place by offsets, recording captured segment offsets as it goes; strings are
+     * created when the handler reads them. A failed match allocates at most the offset array of a pattern that
+     * declares variables.
+     *
+     * @return match result, or {@code null} when the path does not match
+     */
+    public PathMatchResult matchAndExtract(String path) {
+        if (variableNames.length == 0) {
+            return doMatch(path, null) ? matched(path) : null;
+        }
+        int[] spans = new int[variableNames.length * 2];
+        if (!doMatch(path, spans)) {
+            return null;
+        }
+        return new PathMatchResult(pattern, path, variableNames, spans, slotTypes, primitiveValues(path, spans));
+    }
+
+    /**
+     * Result for a path already known to match a pattern without variables, e.g. decided by {@link PathDfa}.
+     */
+    PathMatchResult matched(String path) {
+        return new PathMatchResult(pattern, path, variableNames, null, null, null);
+    }
+
+    /**
+     * @return parsed LONG / INT values at {@code [slot * 2]} and UUID halves at {@code [slot * 2, slot * 2 + 1]}
+     */
+    private long[] primitiveValues(String path, int[] spans) {
+        if (!hasPrimitiveSlots) {
+            return null;
+        }
+        long[] values = new long[slotTypes.length * 2];
+        for (int slot = 0; slot < slotTypes.length; slot++) {
+            int from = spans[slot * 2];
+            int to = spans[slot * 2 + 1];
+            switch (slotTypes[slot]) {
+                case LONG:
+                case INT:
+                    values[slot * 2] = PathSegments.parseDecimal(path, from, to);
+                    break;
+                case UUID:
+                    // 8-4-4 | 4-12 hex digits, dashes are skipped
+                    values[slot * 2] = PathSegments.parseHex(path, from, from + 18);
+                    values[slot * 2 + 1] = PathSegments.parseHex(path, from + 19, to);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return values;
+    }
+
+    private boolean doMatch(CharSequence path, int[] spans) {
+        if (path == null || path.length() == 0) {
+            // no path segments at all: only ** elements can match
+            return onlyDoubleWildcards(0, segments.length - 1);
+        }
+        int sepLen = pathSeparator.length();
+        int start = PathSegments.trimmedStart(path, pathSeparator);
+        int end = PathSegments.trimmedEnd(path, start, pathSeparator);
+
+        if (firstDoubleWildcard < 0) {
+            int pos = start;
+            for (int i = 0; i < segments.length; i++) {
+                if (pos > end) {
+                    return false;
+                }
+                int segEnd = PathSegments.segmentEnd(path, pos, end, pathSeparator);
+                if (!matchSegment(i, path, pos, segEnd, spans)) {
+                    return false;
+                }
+                pos = segEnd + sepLen;
+            }
+            return pos > end;
+        }
+
+        int prefixLength = firstDoubleWildcard;
+        int suffixLength = segments.length - 1 - lastDoubleWildcard;
+        int middleCount = PathSegments.count(path, start, end, pathSeparator) - prefixLength - suffixLength;
+        if (middleCount < 0) {
+            return false;
+        }
+
+        // Match all elements up to the first **
+        int pos = start;
+        for (int i = 0; i < prefixLength; i++) {
+            int segEnd = PathSegments.segmentEnd(path, pos, end, pathSeparator);
+            if (!matchSegment(i, path, pos, segEnd, spans)) {
+                return false;
+            }
+            pos = segEnd + sepLen;
+        }
+        int middleStart = pos;
+
+        // Match all elements after the last **
+        for (int i = 0; i < middleCount; i++) {
+            pos = PathSegments.segmentEnd(path, pos, end, pathSeparator) + sepLen;
+        }
+        int suffixStart = pos;
+        for (int i = lastDoubleWildcard + 1; i < segments.length; i++) {
+            int segEnd = PathSegments.segmentEnd(path, pos, end, pathSeparator);
+            if (!matchSegment(i, path, pos, segEnd, null)) {
+                return false;
+            }
+            pos = segEnd + sepLen;
+        }
+        if (spans != null) {
+            // capture back to front, the order the tokenizing matcher wrote repeated names in
+            for (int i = segments.length - 1; i > lastDoubleWildcard; i--) {
+                int segStart = suffixStart;
+                for (int skip = lastDoubleWildcard + 1; skip < i; skip++) {
+                    segStart = PathSegments.segmentEnd(path, segStart, end, pathSeparator) + sepLen;
+                }
+                matchSegment(i, path, segStart, PathSegments.segmentEnd(path, segStart, end, pathSeparator), spans);
+            }
+        }
+
+        // Find each group between two ** in the remaining middle segments, leftmost first
+        int pattIdxStart = firstDoubleWildcard;
+        int pattIdxEnd = lastDoubleWildcard;
+        pos = middleStart;
+        while (pattIdxStart != pattIdxEnd && middleCount > 0) {
+            int patIdxTmp = pattIdxStart + 1;
+            while (kinds[patIdxTmp] != SegmentKind.DOUBLE_WILDCARD) {
+                patIdxTmp++;
+            }
+            if (patIdxTmp == pattIdxStart + 1) {
+                pattIdxStart++;
+                continue;
+            }
+            int patLength = patIdxTmp - pattIdxStart - 1;
+            int candidate = pos;
+            int skipped = 0;
+            int matchedEnd = -1;
+            for (; skipped <= middleCount - patLength; skipped++) {
+                matchedEnd = matchGroup(pattIdxStart + 1, patLength, path, candidate, end, spans);
+                if (matchedEnd >= 0) {
+                    break;
+                }
+                candidate = PathSegments.segmentEnd(path, candidate, end, pathSeparator) + sepLen;
+            }
+            if (matchedEnd < 0) {
+                return false;
+            }
+            pattIdxStart = patIdxTmp;
+            middleCount -= skipped + patLength;
+            pos = matchedEnd;
+        }
+
+        return onlyDoubleWildcards(pattIdxStart, pattIdxEnd);
+    }
+
+    /**
+     * @return offset after the matched group, or {@code -1}
+     */
+    private int matchGroup(int firstIndex, int length, CharSequence path, int pos, int end, int[] spans) {
+        for (int j = 0; j < length; j++) {
+            int segEnd = PathSegments.segmentEnd(path, pos, end, pathSeparator);
+            if (!matchSegment(firstIndex + j, path, pos, segEnd, spans)) {
+                return -1;
+            }
+            pos = segEnd + pathSeparator.length();
+        }
+        return pos;
+    }
+
+    private boolean onlyDoubleWildcards(int from, int to) {
+        for (int i = from; i <= to; i++) {
+            if (kinds[i] != SegmentKind.DOUBLE_WILDCARD) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchSegment(int index, CharSequence path, int from, int to, int[] spans) {
+        switch (kinds[index]) {
+            case LITERAL:
+                return PathSegments.segmentEquals(path, from, to, segments[index]);
+            case VARIABLE:
+                if (types[index] != VariableType.STRING && !conforms(index, path, from, to)) {
+                    return false;
+                }
+                if (spans != null) {
+                    spans[slots[index] * 2] = from;
+                    spans[slots[index] * 2 + 1] = to;
+                }
+                return true;
+            case GLOB:
+                return AntPathMatcher.matchGlob(segments[index], path, from, to);
+            default:
+                return false;
+        }
+    }
+
+    private boolean conforms(int index, CharSequence path, int from, int to) {
+        switch (types[index]) {
+            case LONG:
+                return PathSegments.isDecimal(path, from, to, Long.MIN_VALUE, Long.MAX_VALUE);
+            case INT:
+                return PathSegments.isDecimal(path, from, to, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case UUID:
+                return PathSegments.isUuid(path, from, to);
+            case REGEX:
+                return regexes[index].matcher(path).region(from, to).matches();
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledPathPattern" + Arrays.toString(segments);
+    }
+}
@@ -1,191 +1,172 @@
 package com.dopkit.dispatch;
 
-import com.dopkit.dispatch.DispatchStrategyConfig.ActionPathDispatchConfig;
-import com.dopkit.dispatch.DispatchStrategyConfig.ClassDispatchConfig;
-import com.dopkit.dispatch.DispatchStrategyConfig.CommandDispatchConfig;
-import com.dopkit.dispatch.DispatchStrategyConfig.EnumDispatchConfig;
-import com.dopkit.dispatch.DispatchStrategyConfig.PathDispatchConfig;
-import com.dopkit.dispatch.DispatchStrategyConfig.RouteKeyDispatchConfig;
-import com.dopkit.dispatch.DispatchStrategyConfig.RouteKeyToEnumDispatchConfig;
-
-import java.util.EnumMap;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
- * Central dispatch engine with pluggable strategy configurations.
+ * Central dispatch engine with pluggable strategies.
+ * <p>
+ * Built-in strategies are resolved from a {@link DispatchStrategyConfig} once at registration and stored
+ * in a copy-on-write array indexed by {@link DispatchStrategyType#ordinal()}; custom strategies for
+ * {@link DispatchStrategyType#CUSTOM} requests are keyed by request class. Registering a strategy publishes
+ * a new table with one volatile write, so dispatch reads it without locking and can run concurrently with
+ * re-registration. Built-in strategies are ordinary {@link DispatchStrategy} implementations and are invoked
+ * through the SPI like custom ones.
+ * <p>
+ * The {@link DispatchProbe} is fixed when the engine is constructed. Without one, every entry point takes
+ * an uninstrumented path that never touches a probe; with one, e.g. {@link DispatchMetrics}, each dispatch
+ * is bracketed by {@link DispatchProbe#start()} and {@link DispatchProbe#completed}.
  */
 public final class DispatchEngine<TResult> {
-    private final Map<DispatchStrategyType, DispatchStrategyConfig<TResult>> strategies =
-            new EnumMap<>(DispatchStrategyType.class);
+    /**
+     * Returned by the direct entry points ({@link #dispatchClass}, {@link #dispatchEnum}) when no handler
+     * applies; compare by identity.
+     */
+    public static final Object NOT_HANDLED = new Object() {
+        @Override
+        public String toString() {
+            return "NOT_HANDLED";
+        }
+    };
+
+    private volatile DispatchStrategy<?, TResult>[] strategies = newStrategyArray();
+    private volatile Map<Class<?>, DispatchStrategy<?, TResult>> customStrategies = Collections.emptyMap();
+    /**
+     * {@code null} when uninstrumented; final, so the branch on it is decided once per engine.
+     */
+    private final DispatchProbe probe;
+
+    public DispatchEngine() {
+        this(null);
+    }
+
+    /**
+     * @param probe instrumentation for every dispatch of this engine; {@code null} or {@link DispatchProbe#NOOP}
+     *              selects the uninstrumented path
+     */
+    public DispatchEngine(DispatchProbe probe) {
+        this.probe = probe == DispatchProbe.NOOP ? null : probe;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <TResult> DispatchStrategy<?, TResult>[] newStrategyArray() {
+        return (DispatchStrategy<?, TResult>[]) new DispatchStrategy<?, ?>[DispatchStrategyType.values().length];
+    }
 
     public DispatchEngine<TResult> registerStrategy(DispatchStrategyConfig<TResult> config) {
-        if (config != null) {
-            strategies.put(config.getType(), config);
+        if (config != null && config.getType() != DispatchStrategyType.CUSTOM) {
+            DispatchStrategy<?, TResult> strategy = BuiltinDispatchStrategies.resolve(config);
+            synchronized (this) {
+                DispatchStrategy<?, TResult>[] updated = strategies.clone();
+                updated[config.getType().ordinal()] = strategy;
+                strategies = updated;
+            }
         }
         return this;
     }
 
-    public DispatchResult<TResult> dispatch(DispatchRequest<TResult> request) {
-        if (request == null) {
-            return DispatchResult.notHandled();
-        }
-        DispatchStrategyConfig<TResult> config = strategies.get(request.getType());
-        if (config == null) {
-            return DispatchResult.notHandled();
-        }
-
-        switch (request.getType()) {
-            case CLASS:
-                return dispatchClass((ClassDispatchRequest<TResult>) request, config.getClassConfig());
-            case ROUTE_KEY:
-                return dispatchRouteKey((RouteKeyDispatchRequest<TResult>) request, config.getRouteKeyConfig());
-            case ENUM:
-                return dispatchEnum((EnumDispatchRequest<TResult>) request, config.getEnumConfig());
-            case ROUTE_KEY_TO_ENUM:
-                return dispatchRouteKeyToEnum(
-                        (RouteKeyToEnumDispatchRequest<TResult>) request,
-                        config.getRouteKeyToEnumConfig());
-            case COMMAND_TABLE:
-                return dispatchCommand((CommandDispatchRequest<TResult>) request, config.getCommandDispatchConfig());
-            case PATH:
-                return dispatchPath((PathDispatchRequest<TResult>) request, config.getPathDispatchConfig());
-            case ACTION_PATH:
-                return dispatchActionPath(
-                        (ActionPathDispatchRequest<TResult>) request,
-                        config.getActionPathDispatchConfig());
-            default:
-                return DispatchResult.notHandled();
+    /**
+     * Registers a custom strategy for requests of exactly the given class; such requests must report
+     * {@link DispatchStrategyType#CUSTOM}. Replaces any strategy registered for the same class.
+     */
+    public <TRequest extends DispatchRequest<TResult>> DispatchEngine<TResult> registerStrategy(
+            Class<TRequest> requestType,
+            DispatchStrategy<? super TRequest, TResult> strategy) {
+        Objects.requireNonNull(requestType, "requestType");
+        Objects.requireNonNull(strategy, "strategy");
+        synchronized (this) {
+            Map<Class<?>, DispatchStrategy<?, TResult>> updated = new HashMap<>(customStrategies);
+            updated.put(requestType, strategy);
+            customStrategies = updated;
         }
+        return this;
     }
 
-    private DispatchResult<TResult> dispatchClass(
-            ClassDispatchRequest<TResult> request,
-            ClassDispatchConfig<TResult> config) {
-        if (config == null) {
-            return DispatchResult.notHandled();
-        }
-        Object input = request.getInput();
-        Class<?> inputClass = input == null ? Void.class : input.getClass();
-        Function<Object, TResult> handler = config.getHandlerMap().get(inputClass);
-        if (handler != null) {
-            return DispatchResult.handled(handler.apply(input));
-        }
-        if (config.getDefaultHandler() != null) {
-            return DispatchResult.handled(config.getDefaultHandler().apply(input));
-        }
-        return DispatchResult.notHandled();
+    /**
+     * @return the probe given at construction, {@code null} when the engine is uninstrumented
+     */
+    public DispatchProbe getProbe() {
+        return probe;
     }
 
-    private DispatchResult<TResult> dispatchRouteKey(
-            RouteKeyDispatchRequest<TResult> request,
-            RouteKeyDispatchConfig<TResult> config) {
-        if (config == null) {
-            return DispatchResult.notHandled();
-        }
-        Function<Object, TResult> handler = config.getHandlerMap().get(request.getRouteKey());
-        if (handler != null) {
-            return DispatchResult.handled(handler.apply(request.getInput()));
-        }
-        if (request.isApplyDefaultHandlers()) {
-            if (config.getDefaultKeyHandler() != null) {
-                return DispatchResult.handled(
-                        config.getDefaultKeyHandler().apply(request.getRouteKey(), request.getInput()));
-            }
-            if (config.getDefaultInputHandler() != null) {
-                return DispatchResult.handled(config.getDefaultInputHandler().apply(request.getInput()));
-            }
-        }
-        return DispatchResult.notHandled();
+    /**
+     * CLASS dispatch without a request or result wrapper: nothing is allocated on the way to the handler.
+     *
+     * @return the handler's result, or {@link #NOT_HANDLED}
+     */
+    public Object dispatchClass(Object input) {
+        BuiltinDispatchStrategies.ClassStrategy<TResult> strategy = classStrategy();
+        if (probe == null) {
+            return strategy == null ? NOT_HANDLED : strategy.dispatchInput(input);
+        }
+        long start = probe.start();
+        Object result = strategy == null ? NOT_HANDLED : strategy.dispatchInput(input);
+        probe.completed(DispatchStrategyType.CLASS, start, result != NOT_HANDLED);
+        return result;
     }
 
-    private DispatchResult<TResult> dispatchEnum(
-            EnumDispatchRequest<TResult> request,
-            EnumDispatchConfig<TResult> config) {
-        if (config == null) {
-            return DispatchResult.notHandled();
-        }
-        Function<Object, TResult> handler = config.getHandlerMap().get(request.getRouteEnum());
-        if (handler != null) {
-            return DispatchResult.handled(handler.apply(request.getInput()));
-        }
-        if (config.getDefaultEnumHandler() != null) {
-            return DispatchResult.handled(
-                    config.getDefaultEnumHandler().apply(request.getRouteEnum(), request.getInput()));
-        }
-        if (config.getDefaultInputHandler() != null) {
-            return DispatchResult.handled(config.getDefaultInputHandler().apply(request.getInput()));
-        }
-        return DispatchResult.notHandled();
+    /**
+     * Resolves the handler CLASS dispatch would invoke for inputs of the given class, without invoking it;
+     * class-hierarchy resolution applies when the strategy was configured with it.
+     *
+     * @param inputType class of the input, {@code null} for a null input
+     * @return registered handler, or {@code null} when none applies (the default handler is not returned)
+     */
+    public Function<Object, TResult> resolveClassHandler(Class<?> inputType) {
+        BuiltinDispatchStrategies.ClassStrategy<TResult> strategy = classStrategy();
+        return strategy == null ? null : strategy.handlerForType(inputType);
     }
 
-    private DispatchResult<TResult> dispatchRouteKeyToEnum(
-            RouteKeyToEnumDispatchRequest<TResult> request,
-            RouteKeyToEnumDispatchConfig<TResult> config) {
-        if (config == null) {
-            return DispatchResult.notHandled();
-        }
-        for (Function<String, ? extends Enum<?>> converter : config.getConverters().values()) {
-            Enum<?> enumValue = converter.apply(request.getRouteKey());
-            if (enumValue == null) {
-                continue;
-            }
-            Function<Object, TResult> handler = config.getEnumHandlerMap().get(enumValue);
-            if (handler != null) {
-                return DispatchResult.handled(handler.apply(request.getInput()));
-            }
-        }
-        return DispatchResult.notHandled();
+    @SuppressWarnings("unchecked")
+    private BuiltinDispatchStrategies.ClassStrategy<TResult> classStrategy() {
+        return (BuiltinDispatchStrategies.ClassStrategy<TResult>) strategies[DispatchStrategyType.CLASS.ordinal()];
     }
 
-    private DispatchResult<TResult> dispatchCommand(
-            CommandDispatchRequest<TResult> request,
-            CommandDispatchConfig<TResult> config) {
-        if (config == null) {
-            return DispatchResult.notHandled();
-        }
-        Function<String, ? extends Enum<?>> converter = config.getCommandConverter();
-        Enum<?> commandEnum = converter != null ? converter.apply(request.getCommand()) : null;
-        if (commandEnum != null && config.getHandlerExtractor() != null) {
-            Function<Object, TResult> handler = config.getHandlerExtractor().apply(commandEnum);
-            if (handler != null) {
-                return DispatchResult.handled(handler.apply(request.getInput()));
-            }
-        }
-        if (config.getDefaultHandler() != null) {
-            return DispatchResult.handled(config.getDefaultHandler().apply(request.getCommand(), request.getInput()));
-        }
-        return DispatchResult.notHandled();
+    /**
+     * ENUM dispatch without a request or result wrapper, see {@link #dispatchClass(Object)}.
+     *
+     * @return the handler's result, or {@link #NOT_HANDLED}
+     */
+    public Object dispatchEnum(Enum<?> routeEnum, Object input) {
+        @SuppressWarnings("unchecked")
+        BuiltinDispatchStrategies.EnumStrategy<TResult> strategy =
+                (BuiltinDispatchStrategies.EnumStrategy<TResult>) strategies[DispatchStrategyType.ENUM.ordinal()];
+        if (probe == null) {
+            return strategy == null ? NOT_HANDLED : strategy.dispatchInput(routeEnum, input);
+        }
+        long start = probe.start();
+        Object result = strategy == null ? NOT_HANDLED : strategy.dispatchInput(routeEnum, input);
+        probe.completed(DispatchStrategyType.ENUM, start, result != NOT_HANDLED);
+        return result;
     }
 
-    private DispatchResult<TResult> dispatchPath(
-            PathDispatchRequest<TResult> request,
-            PathDispatchConfig<TResult> config) {
-        if (config == null) {
+    public DispatchResult<TResult> dispatch(DispatchRequest<TResult> request) {
+        if (request == null || request.getType() == null) {
             return DispatchResult.notHandled();
         }
-        for (PathDispatchHandler<TResult> handler : config.getHandlers()) {
-            TResult result = handler.tryHandle(request.getContext());
-            if (result != null) {
-                return DispatchResult.handled(result);
-            }
-        }
-        return DispatchResult.notHandled();
+        DispatchStrategyType type = request.getType();
+        DispatchStrategy<?, TResult> strategy = type == DispatchStrategyType.CUSTOM
+                ? customStrategies.get(request.getClass())
+                : strategies[type.ordinal()];
+        if (probe == null) {
+            return strategy == null ? DispatchResult.notHandled() : invoke(strategy, request);
+        }
+        long start = probe.start();
+        DispatchResult<TResult> result = strategy == null ? DispatchResult.notHandled() : invoke(strategy, request);
+        probe.completed(type, start, result.isHandled());
+        return result;
     }
 
-    private DispatchResult<TResult> dispatchActionPath(
-            ActionPathDispatchRequest<TResult> request,
-            ActionPathDispatchConfig<TResult> config) {
-        if (config == null) {
-            return DispatchResult.notHandled();
-        }
-        AntPathMatcher matcher = config.getMatcher();
-        for (PathActionMatchRule<TResult, ?> rule : config.getRules()) {
-            TResult result = rule.tryHandle(matcher, request.getContext());
-            if (result != null) {
-                return DispatchResult.handled(result);
-            }
-        }
-        return DispatchResult.notHandled();
+    /**
+     * Every strategy, built-in or custom, is called through {@link DispatchStrategy}; the table only holds a
+     * strategy for requests of its own type, so the request type matches.
+     */
+    @SuppressWarnings("unchecked")
+    private static <TResult> DispatchResult<TResult> invoke(
+            DispatchStrategy<?, TResult> strategy, DispatchRequest<TResult> request) {
+        return ((DispatchStrategy<DispatchRequest<TResult>, TResult>) strategy).dispatch(request);
     }
 }
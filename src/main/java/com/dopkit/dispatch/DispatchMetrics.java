@@ -0,0 +1,166 @@
+package com.dopkit.dispatch;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in dispatch metrics: per-strategy invocation and not-handled counts with a latency histogram, plus
+ * named per-handler and default-handler counters.
+ * <p>
+ * All counters are {@link LongAdder}s, so concurrent dispatchers update striped cells instead of contending
+ * on one word. Handler counters are created once, when a route is built, and captured by the handler
+ * wrapper; the dispatch path never looks them up by name. {@link #snapshot()} copies everything for export.
+ */
+public final class DispatchMetrics implements DispatchProbe {
+    private final StrategyCounters[] strategies;
+    private final ConcurrentHashMap<String, LongAdder> handlers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> defaultHandlers = new ConcurrentHashMap<>();
+
+    public DispatchMetrics() {
+        DispatchStrategyType[] types = DispatchStrategyType.values();
+        this.strategies = new StrategyCounters[types.length];
+        for (DispatchStrategyType type : types) {
+            strategies[type.ordinal()] = new StrategyCounters();
+        }
+    }
+
+    @Override
+    public long start() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void completed(DispatchStrategyType type, long start, boolean handled) {
+        StrategyCounters counters = strategies[type.ordinal()];
+        counters.invocations.increment();
+        if (!handled) {
+            counters.notHandled.increment();
+        }
+        counters.latency.record(System.nanoTime() - start);
+    }
+
+    /**
+     * @return counter for the named handler, shared by every caller using the same name
+     */
+    public LongAdder handlerCounter(String name) {
+        return handlers.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * @return counter for the named default handler (e.g. {@code matchAny}, {@code matchAnyKey})
+     */
+    public LongAdder defaultHandlerCounter(String name) {
+        return defaultHandlers.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public Snapshot snapshot() {
+        Map<DispatchStrategyType, StrategySnapshot> strategySnapshots = new EnumMap<>(DispatchStrategyType.class);
+        for (DispatchStrategyType type : DispatchStrategyType.values()) {
+            StrategyCounters counters = strategies[type.ordinal()];
+            long invocations = counters.invocations.sum();
+            if (invocations > 0) {
+                strategySnapshots.put(type, new StrategySnapshot(
+                        invocations, counters.notHandled.sum(), counters.latency.snapshot()));
+            }
+        }
+        return new Snapshot(strategySnapshots, sums(handlers), sums(defaultHandlers));
+    }
+
+    private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static final class StrategyCounters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder notHandled = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    public static final class StrategySnapshot {
+        private final long invocations;
+        private final long notHandled;
+        private final LatencyHistogram.Snapshot latency;
+
+        private StrategySnapshot(long invocations, long notHandled, LatencyHistogram.Snapshot latency) {
+            this.invocations = invocations;
+            this.notHandled = notHandled;
+            this.latency = latency;
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+
+        public long getNotHandled() {
+            return notHandled;
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+    }
+
+    /**
+     * Immutable copy of all counters; strategies that were never invoked are omitted.
+     */
+    public static final class Snapshot {
+        private final Map<DispatchStrategyType, StrategySnapshot> strategies;
+        private final Map<String, Long> handlerInvocations;
+        private final Map<String, Long> defaultHandlerInvocations;
+
+        private Snapshot(
+                Map<DispatchStrategyType, StrategySnapshot> strategies,
+                Map<String, Long> handlerInvocations,
+                Map<String, Long> defaultHandlerInvocations) {
+            this.strategies = Collections.unmodifiableMap(strategies);
+            this.handlerInvocations = handlerInvocations;
+            this.defaultHandlerInvocations = defaultHandlerInvocations;
+        }
+
+        public Map<DispatchStrategyType, StrategySnapshot> getStrategies() {
+            return strategies;
+        }
+
+        public Map<String, Long> getHandlerInvocations() {
+            return handlerInvocations;
+        }
+
+        public Map<String, Long> getDefaultHandlerInvocations() {
+            return defaultHandlerInvocations;
+        }
+
+        /**
+         * Flattens the snapshot into dotted metric names for exporters, e.g.
+         * {@code strategy.CLASS.invocations}, {@code strategy.CLASS.latency.p99.ns},
+         * {@code handler.<name>.invocations}, {@code default.<name>.invocations}.
+         */
+        public Map<String, Long> toMap() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Map.Entry<DispatchStrategyType, StrategySnapshot> entry : strategies.entrySet()) {
+                String prefix = "strategy." + entry.getKey().name() + ".";
+                StrategySnapshot strategy = entry.getValue();
+                result.put(prefix + "invocations", strategy.getInvocations());
+                result.put(prefix + "notHandled", strategy.getNotHandled());
+                result.put(prefix + "latency.mean.ns", Math.round(strategy.getLatency().getMeanNanos()));
+                result.put(prefix + "latency.p50.ns", strategy.getLatency().getQuantileUpperBoundNanos(0.5));
+                result.put(prefix + "latency.p99.ns", strategy.getLatency().getQuantileUpperBoundNanos(0.99));
+            }
+            for (Map.Entry<String, Long> entry : handlerInvocations.entrySet()) {
+                result.put("handler." + entry.getKey() + ".invocations", entry.getValue());
+            }
+            for (Map.Entry<String, Long> entry : defaultHandlerInvocations.entrySet()) {
+                result.put("default." + entry.getKey() + ".invocations", entry.getValue());
+            }
+            return Collections.unmodifiableMap(result);
+        }
+    }
+}
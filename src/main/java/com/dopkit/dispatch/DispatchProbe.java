@@ -0,0 +1,31 @@
+package com.dopkit.dispatch;
+
+/**
+ * Instrumentation hook called by {@link DispatchEngine} around every dispatch.
+ * <p>
+ * The probe is passed to {@link DispatchEngine#DispatchEngine(DispatchProbe)} and cannot be changed afterwards.
+ * An engine built without a probe (or with {@link #NOOP}) never calls one.
+ */
+public interface DispatchProbe {
+
+    DispatchProbe NOOP = new DispatchProbe() {
+        @Override
+        public long start() {
+            return 0L;
+        }
+
+        @Override
+        public void completed(DispatchStrategyType type, long start, boolean handled) {
+        }
+    };
+
+    /**
+     * @return opaque start token passed back to {@link #completed}, typically {@link System#nanoTime()}
+     */
+    long start();
+
+    /**
+     * @param handled {@code false} when no handler, including default handlers, accepted the request
+     */
+    void completed(DispatchStrategyType type, long start, boolean handled);
+}
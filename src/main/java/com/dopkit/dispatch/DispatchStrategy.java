@@ -0,0 +1,21 @@
+package com.dopkit.dispatch;
+
+/**
+ * Dispatch strategy SPI.
+ * <p>
+ * A strategy is resolved once when it is registered with {@link DispatchEngine} and then invoked for every
+ * request of its type, so implementations should capture everything they need (maps, handlers, indexes)
+ * in final fields up front. Built-in strategies are created from {@link DispatchStrategyConfig}; custom
+ * ones are registered per request class with {@link DispatchEngine#registerStrategy(Class, DispatchStrategy)}.
+ *
+ * @param <TRequest> request type handled by the strategy
+ * @param <TResult>  result type
+ */
+@FunctionalInterface
+public interface DispatchStrategy<TRequest extends DispatchRequest<TResult>, TResult> {
+
+    /**
+     * @return dispatch result, {@link DispatchResult#notHandled()} when no handler applies
+     */
+    DispatchResult<TResult> dispatch(TRequest request);
+}
@@ -1,5 +1,6 @@
 package com.dopkit.dispatch;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
@@ -164,12 +165,31 @@ public final class DispatchStrategyConfig<TResult> {
     public static final class ClassDispatchConfig<TResult> {
         private final Map<Class<?>, Function<Object, TResult>> handlerMap;
         private final Function<Object, TResult> defaultHandler;
+        private final boolean resolveHierarchy;
 
         public ClassDispatchConfig(
                 Map<Class<?>, Function<Object, TResult>> handlerMap,
                 Function<Object, TResult> defaultHandler) {
+            this(handlerMap, defaultHandler, false);
+        }
+
+        /**
+         * @param resolveHierarchy when {@code true} an input without an exact handler falls back to the
+         *                         handler of its nearest superclass, then of its interfaces (breadth-first,
+         *                         declaration order), then of {@code Object}; the resolution is memoized per
+         *                         concrete class, so the handler map must not change after registration
+         */
+        public ClassDispatchConfig(
+                Map<Class<?>, Function<Object, TResult>> handlerMap,
+                Function<Object, TResult> defaultHandler,
+                boolean resolveHierarchy) {
             this.handlerMap = handlerMap;
             this.defaultHandler = defaultHandler;
+            this.resolveHierarchy = resolveHierarchy;
+        }
+
+        public boolean isResolveHierarchy() {
+            return resolveHierarchy;
         }
 
         public Map<Class<?>, Function<Object, TResult>> getHandlerMap() {
@@ -238,12 +258,37 @@ public final class DispatchStrategyConfig<TResult> {
     public static final class RouteKeyToEnumDispatchConfig<TResult> {
         private final Map<Class<? extends Enum<?>>, Function<String, ? extends Enum<?>>> converters;
         private final Map<Enum<?>, Function<Object, TResult>> enumHandlerMap;
+        private final Map<String, Function<Object, TResult>> keyHandlerMap;
+        private final Map<String, Function<Object, TResult>> ignoreCaseKeyHandlerMap;
 
         public RouteKeyToEnumDispatchConfig(
                 Map<Class<? extends Enum<?>>, Function<String, ? extends Enum<?>>> converters,
                 Map<Enum<?>, Function<Object, TResult>> enumHandlerMap) {
+            this(converters, enumHandlerMap, Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        /**
+         * @param keyHandlerMap           route keys already resolved to their enum handler, matched exactly and
+         *                                tried before any converter
+         * @param ignoreCaseKeyHandlerMap route keys matched ignoring case when {@code keyHandlerMap} misses
+         */
+        public RouteKeyToEnumDispatchConfig(
+                Map<Class<? extends Enum<?>>, Function<String, ? extends Enum<?>>> converters,
+                Map<Enum<?>, Function<Object, TResult>> enumHandlerMap,
+                Map<String, Function<Object, TResult>> keyHandlerMap,
+                Map<String, Function<Object, TResult>> ignoreCaseKeyHandlerMap) {
             this.converters = converters;
             this.enumHandlerMap = enumHandlerMap;
+            this.keyHandlerMap = keyHandlerMap;
+            this.ignoreCaseKeyHandlerMap = ignoreCaseKeyHandlerMap;
+        }
+
+        public Map<String, Function<Object, TResult>> getKeyHandlerMap() {
+            return keyHandlerMap;
+        }
+
+        public Map<String, Function<Object, TResult>> getIgnoreCaseKeyHandlerMap() {
+            return ignoreCaseKeyHandlerMap;
         }
 
         public Map<Class<? extends Enum<?>>, Function<String, ? extends Enum<?>>> getConverters() {
@@ -297,10 +342,38 @@ public final class DispatchStrategyConfig<TResult> {
     public static final class ActionPathDispatchConfig<TResult> {
         private final AntPathMatcher matcher;
         private final List<PathActionMatchRule<TResult, ?>> rules;
+        private final ActionPathIndexMode indexMode;
+        private final ActionPathLookupCache lookupCache;
+        private volatile ActionPathRuleTable<TResult> ruleTable;
 
         public ActionPathDispatchConfig(AntPathMatcher matcher, List<PathActionMatchRule<TResult, ?>> rules) {
-            this.matcher = matcher;
+            this(matcher, rules, ActionPathIndexMode.LINEAR);
+        }
+
+        /**
+         * @param indexMode lookup structure; the rule list is snapshotted into a compiled table on the
+         *                  first dispatch, so register a new config after changing the rules
+         */
+        public ActionPathDispatchConfig(
+                AntPathMatcher matcher,
+                List<PathActionMatchRule<TResult, ?>> rules,
+                ActionPathIndexMode indexMode) {
+            this(matcher, rules, indexMode, null);
+        }
+
+        /**
+         * @param lookupCache optional (action, path) cache, see {@link ActionPathLookupCache}; may be shared
+         *                    by successive configs of the same router
+         */
+        public ActionPathDispatchConfig(
+                AntPathMatcher matcher,
+                List<PathActionMatchRule<TResult, ?>> rules,
+                ActionPathIndexMode indexMode,
+                ActionPathLookupCache lookupCache) {
+            this.matcher = matcher == null ? new AntPathMatcher() : matcher;
             this.rules = rules;
+            this.indexMode = indexMode == null ? ActionPathIndexMode.LINEAR : indexMode;
+            this.lookupCache = lookupCache;
         }
 
         public AntPathMatcher getMatcher() {
@@ -310,5 +383,31 @@ public final class DispatchStrategyConfig<TResult> {
         public List<PathActionMatchRule<TResult, ?>> getRules() {
             return rules;
         }
+
+        public ActionPathIndexMode getIndexMode() {
+            return indexMode;
+        }
+
+        public ActionPathLookupCache getLookupCache() {
+            return lookupCache;
+        }
+
+        /**
+         * Compiles the rule table now instead of on the first dispatch, so the config can be published to
+         * concurrent readers fully built. The rule list must not change afterwards.
+         */
+        public ActionPathDispatchConfig<TResult> precompile() {
+            getRuleTable();
+            return this;
+        }
+
+        ActionPathRuleTable<TResult> getRuleTable() {
+            ActionPathRuleTable<TResult> table = ruleTable;
+            if (table == null) {
+                table = new ActionPathRuleTable<>(matcher, rules, indexMode);
+                ruleTable = table;
+            }
+            return table;
+        }
     }
 }
@@ -1,7 +1,7 @@
 package com.dopkit.dispatch;
 
 /**
- * Enumeration of built-in dispatch strategy types.
+ * Enumeration of dispatch strategy types.
  */
 public enum DispatchStrategyType {
     CLASS,
@@ -10,5 +10,11 @@ public enum DispatchStrategyType {
     ROUTE_KEY_TO_ENUM,
     COMMAND_TABLE,
     PATH,
-    ACTION_PATH
+    ACTION_PATH,
+
+    /**
+     * User-defined request types, dispatched to the {@link DispatchStrategy} registered for the request
+     * class via {@link DispatchEngine#registerStrategy(Class, DispatchStrategy)}.
+     */
+    CUSTOM
 }
@@ -0,0 +1,76 @@
+package com.dopkit.dispatch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Enum-keyed handler lookup backed by one dense array per enum class, indexed by {@link Enum#ordinal()}.
+ * <p>
+ * Routes rarely mix more than a handful of enum classes, so the per-class arrays are found by an identity
+ * scan over the declaring classes; a lookup is then a single array load with no {@code hashCode} or
+ * {@code equals} calls. The table is an immutable snapshot of the map it was built from.
+ *
+ * @param <TResult> result type
+ */
+public final class EnumHandlerTable<TResult> {
+    private static final EnumHandlerTable<?> EMPTY = new EnumHandlerTable<>(new Class<?>[0], new Function<?, ?>[0][]);
+
+    private final Class<?>[] enumClasses;
+    private final Function<Object, TResult>[][] handlers;
+
+    private EnumHandlerTable(Class<?>[] enumClasses, Function<?, ?>[][] handlers) {
+        this.enumClasses = enumClasses;
+        @SuppressWarnings("unchecked")
+        Function<Object, TResult>[][] typed = (Function<Object, TResult>[][]) handlers;
+        this.handlers = typed;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <TResult> EnumHandlerTable<TResult> of(Map<? extends Enum<?>, Function<Object, TResult>> handlerMap) {
+        if (handlerMap == null || handlerMap.isEmpty()) {
+            return (EnumHandlerTable<TResult>) EMPTY;
+        }
+        Map<Class<?>, List<Enum<?>>> byClass = new LinkedHashMap<>();
+        for (Enum<?> constant : handlerMap.keySet()) {
+            if (constant != null) {
+                byClass.computeIfAbsent(constant.getDeclaringClass(), type -> new ArrayList<>()).add(constant);
+            }
+        }
+        Class<?>[] classes = new Class<?>[byClass.size()];
+        Function<?, ?>[][] arrays = new Function<?, ?>[byClass.size()][];
+        int i = 0;
+        for (Map.Entry<Class<?>, List<Enum<?>>> entry : byClass.entrySet()) {
+            Function<?, ?>[] array = new Function<?, ?>[entry.getKey().getEnumConstants().length];
+            for (Enum<?> constant : entry.getValue()) {
+                array[constant.ordinal()] = handlerMap.get(constant);
+            }
+            classes[i] = entry.getKey();
+            arrays[i] = array;
+            i++;
+        }
+        return new EnumHandlerTable<>(classes, arrays);
+    }
+
+    /**
+     * @return handler registered for the constant, or {@code null}
+     */
+    public Function<Object, TResult> get(Enum<?> routeEnum) {
+        if (routeEnum == null) {
+            return null;
+        }
+        Class<?> type = routeEnum.getDeclaringClass();
+        for (int i = 0; i < enumClasses.length; i++) {
+            if (enumClasses[i] == type) {
+                return handlers[i][routeEnum.ordinal()];
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return enumClasses.length == 0;
+    }
+}
@@ -0,0 +1,221 @@
+package com.dopkit.dispatch;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable string-keyed map backed by a minimal perfect hash over the keys it was built from.
+ * <p>
+ * Construction uses hash-and-displace: keys are grouped into buckets by {@link String#hashCode()} (cached
+ * by {@code String}), and buckets are placed largest first, each searching for a seed under which a seeded
+ * hash sends all of its keys to free slots; singleton buckets take the remaining free slots directly. The
+ * per-bucket seed is stored in an {@code int[]}, keys and values in parallel arrays with exactly one slot
+ * per key. A lookup therefore reads one displacement, hashes the key once and does a single
+ * {@code equals} against the stored key, never probing further, regardless of collisions among the
+ * registered keys.
+ * <p>
+ * Intended for route-key tables that are fixed after build; mutators throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <V> value type
+ */
+public final class FrozenKeyMap<V> extends AbstractMap<String, V> {
+    private static final int KEYS_PER_BUCKET = 4;
+    private static final int MAX_SEED = 1 << 24;
+    private static final FrozenKeyMap<?> EMPTY = new FrozenKeyMap<>(new int[1], new String[0], new Object[0]);
+
+    private final int[] displacements;
+    private final String[] keys;
+    private final Object[] values;
+    private Set<Entry<String, V>> entrySet;
+
+    private FrozenKeyMap(int[] displacements, String[] keys, Object[] values) {
+        this.displacements = displacements;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the source contains a {@code null} key or value
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> FrozenKeyMap<V> copyOf(Map<String, ? extends V> source) {
+        Objects.requireNonNull(source, "source");
+        if (source instanceof FrozenKeyMap) {
+            return (FrozenKeyMap<V>) source;
+        }
+        int size = source.size();
+        if (size == 0) {
+            return (FrozenKeyMap<V>) EMPTY;
+        }
+        String[] sourceKeys = new String[size];
+        Object[] sourceValues = new Object[size];
+        int n = 0;
+        for (Map.Entry<String, ? extends V> entry : source.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("FrozenKeyMap does not accept null keys or values");
+            }
+            sourceKeys[n] = entry.getKey();
+            sourceValues[n] = entry.getValue();
+            n++;
+        }
+
+        int bucketCount = (size + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET;
+        List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            buckets.get(bucket(sourceKeys[i], bucketCount)).add(i);
+        }
+        Integer[] order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; b++) {
+            order[b] = b;
+        }
+        Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+        int[] displacements = new int[bucketCount];
+        String[] keys = new String[size];
+        Object[] values = new Object[size];
+        int[] placed = new int[KEYS_PER_BUCKET * 8];
+        int cursor = 0;
+        for (Integer b : order) {
+            List<Integer> members = buckets.get(b);
+            if (members.isEmpty()) {
+                break;
+            }
+            if (members.size() == 1) {
+                // remaining buckets are singletons: hand out the free slots directly
+                while (keys[cursor] != null) {
+                    cursor++;
+                }
+                int index = members.get(0);
+                keys[cursor] = sourceKeys[index];
+                values[cursor] = sourceValues[index];
+                displacements[b] = -cursor - 1;
+                continue;
+            }
+            if (placed.length < members.size()) {
+                placed = new int[members.size()];
+            }
+            int seed = 0;
+            while (!tryPlace(members, seed, sourceKeys, keys, placed)) {
+                if (++seed == MAX_SEED) {
+                    throw new IllegalStateException("no perfect hash seed found for bucket of " + members.size());
+                }
+            }
+            for (int i = 0; i < members.size(); i++) {
+                int index = members.get(i);
+                keys[placed[i]] = sourceKeys[index];
+                values[placed[i]] = sourceValues[index];
+            }
+            displacements[b] = seed;
+        }
+        return new FrozenKeyMap<>(displacements, keys, values);
+    }
+
+    private static boolean tryPlace(List<Integer> members, int seed, String[] sourceKeys, String[] keys, int[] placed) {
+        for (int i = 0; i < members.size(); i++) {
+            int slot = slot(sourceKeys[members.get(i)], seed, keys.length);
+            if (keys[slot] != null) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (placed[j] == slot) {
+                    return false;
+                }
+            }
+            placed[i] = slot;
+        }
+        return true;
+    }
+
+    private static int bucket(String key, int bucketCount) {
+        int h = key.hashCode();
+        return ((h ^ (h >>> 16)) & 0x7fffffff) % bucketCount;
+    }
+
+    /**
+     * Seeded FNV-1a over the characters, so keys sharing a {@code hashCode} still separate.
+     */
+    private static int slot(String key, int seed, int slotCount) {
+        int h = 0x811c9dc5 ^ (seed * 0x9e3779b9);
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x01000193;
+        }
+        h ^= h >>> 15;
+        return (h & 0x7fffffff) % slotCount;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return slotOf(key) >= 0;
+    }
+
+    private int slotOf(Object key) {
+        if (!(key instanceof String) || keys.length == 0) {
+            return -1;
+        }
+        String text = (String) key;
+        int d = displacements[bucket(text, displacements.length)];
+        int slot = d < 0 ? -d - 1 : slot(text, d, keys.length);
+        return keys[slot].equals(text) ? slot : -1;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        Set<Entry<String, V>> view = entrySet;
+        if (view == null) {
+            view = new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new Iterator<Entry<String, V>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Entry<String, V> next() {
+                            if (next >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int slot = next++;
+                            return new SimpleImmutableEntry<>(keys[slot], (V) values[slot]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+            entrySet = view;
+        }
+        return view;
+    }
+}
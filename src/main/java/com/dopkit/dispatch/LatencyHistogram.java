@@ -0,0 +1,93 @@
+package com.dopkit.dispatch;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two buckets.
+ * <p>
+ * Bucket {@code i} counts durations in {@code [2^i, 2^(i+1))} nanoseconds (bucket 0 also takes 0), so
+ * recording is a leading-zero count plus one {@link LongAdder} increment. Resolution is a factor of two,
+ * which is enough to tell a 200 ns lookup from a 20 us one.
+ */
+public final class LatencyHistogram {
+    public static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0L);
+        buckets[63 - Long.numberOfLeadingZeros(value | 1L)].increment();
+        totalNanos.add(value);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, totalNanos.sum());
+    }
+
+    /**
+     * Point-in-time copy; concurrent recording may make the bucket sum and total slightly inconsistent.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long totalNanos;
+        private final long count;
+
+        private Snapshot(long[] counts, long totalNanos) {
+            this.counts = counts;
+            this.totalNanos = totalNanos;
+            long sum = 0;
+            for (long c : counts) {
+                sum += c;
+            }
+            this.count = sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return count of bucket {@code index}, covering {@code [2^index, 2^(index+1))} ns
+         */
+        public long getBucketCount(int index) {
+            return counts[index];
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0.0 : (double) totalNanos / count;
+        }
+
+        /**
+         * @param quantile in {@code [0, 1]}
+         * @return upper bound of the bucket containing the quantile, or 0 when empty
+         */
+        public long getQuantileUpperBoundNanos(double quantile) {
+            if (quantile < 0.0 || quantile > 1.0) {
+                throw new IllegalArgumentException("quantile must be in [0, 1]: " + quantile);
+            }
+            if (count == 0) {
+                return 0L;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.dopkit.dispatch;
 
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Rule describing how to match a path pattern and action prior to invoking a handler.
  */
 public final class PathActionMatchRule<TResult, TAction> {
+    private static final String DEFAULT_PATH_SEPARATOR = "/";
+
     private final String pattern;
     private final ActionMatchMode mode;
     private final Set<TAction> actions;
     private final PathActionRuleHandler<TResult> handler;
+    private final CompiledPathPattern compiledPattern;
+    /**
+     * Patterns compiled for matchers with a non-default separator, one per separator.
+     */
+    private final ConcurrentMap<String, CompiledPathPattern> compiledBySeparator = new ConcurrentHashMap<>(1);
 
     public PathActionMatchRule(
             String pattern,
@@ -30,24 +40,74 @@ public final class PathActionMatchRule<TResult, TAction> {
             if (actions == null || actions.isEmpty()) {
                 throw new IllegalArgumentException("actions must not be empty for mode " + mode);
             }
-            this.actions = Collections.unmodifiableSet(new HashSet<>(actions));
+            this.actions = Collections.unmodifiableSet(copyActions(actions));
         }
+        this.compiledPattern = new CompiledPathPattern(pattern, DEFAULT_PATH_SEPARATOR);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <TAction> Set<TAction> copyActions(Set<TAction> actions) {
+        // keep EnumSet (bit-vector contains) when the builder produced one
+        if (actions instanceof EnumSet) {
+            return (Set<TAction>) ((EnumSet) actions).clone();
+        }
+        return new HashSet<>(actions);
     }
 
     public TResult tryHandle(
             AntPathMatcher matcher,
             PathActionDispatchContext<?, ?, ?> context) {
-        if (!matcher.match(pattern, context.getPath())) {
+        if (!actionMatches(context.getAction())) {
             return null;
         }
-        if (!actionMatches(context.getAction())) {
+        return tryHandlePath(matcher, context);
+    }
+
+    /**
+     * Path match + handler invocation for callers that already know the action is accepted.
+     */
+    TResult tryHandlePath(
+            AntPathMatcher matcher,
+            PathActionDispatchContext<?, ?, ?> context) {
+        return tryHandlePath(compiledFor(matcher), context);
+    }
+
+    /**
+     * Path match + handler invocation with the pattern the caller compiled for its matcher.
+     */
+    TResult tryHandlePath(
+            CompiledPathPattern compiled,
+            PathActionDispatchContext<?, ?, ?> context) {
+        PathMatchResult matchResult = compiled.matchAndExtract(context.getPath());
+        if (matchResult == null) {
             return null;
         }
-        PathMatchResult matchResult = matcher.matchAndExtract(pattern, context.getPath());
+        return invoke(context, matchResult);
+    }
+
+    /**
+     * Handler invocation with an already resolved match result.
+     */
+    TResult invoke(PathActionDispatchContext<?, ?, ?> context, PathMatchResult matchResult) {
         return handler.handle(context.withMatchResult(matchResult));
     }
 
-    private boolean actionMatches(Object action) {
+    /**
+     * Returns the pattern compiled for the matcher's separator; each separator is compiled once and kept, so
+     * matchers with different separators do not evict each other.
+     */
+    CompiledPathPattern compiledFor(AntPathMatcher matcher) {
+        String separator = matcher == null ? DEFAULT_PATH_SEPARATOR : matcher.getPathSeparator();
+        if (separator.equals(DEFAULT_PATH_SEPARATOR)) {
+            return compiledPattern;
+        }
+        CompiledPathPattern compiled = compiledBySeparator.get(separator);
+        return compiled != null
+                ? compiled
+                : compiledBySeparator.computeIfAbsent(separator, key -> new CompiledPathPattern(pattern, key));
+    }
+
+    boolean actionMatches(Object action) {
         switch (mode) {
             case ALL:
                 return true;
@@ -64,6 +124,10 @@ public final class PathActionMatchRule<TResult, TAction> {
         return pattern;
     }
 
+    public CompiledPathPattern getCompiledPattern() {
+        return compiledPattern;
+    }
+
     public ActionMatchMode getMode() {
         return mode;
     }
@@ -0,0 +1,15 @@
+package com.dopkit.dispatch;
+
+/**
+ * Path lookup structure that narrows a rule table down to the rules whose pattern may match.
+ */
+interface PathCandidateIndex {
+
+    /**
+     * Candidates are visited in ascending order with
+     * {@code for (int i = index.next(path, -1); i >= 0; i = index.next(path, i))}; a lookup allocates nothing.
+     *
+     * @return smallest candidate rule index greater than {@code after}, or {@code -1} when there is none
+     */
+    int next(CharSequence path, int after);
+}
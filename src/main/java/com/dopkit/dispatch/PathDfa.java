@@ -0,0 +1,426 @@
+package com.dopkit.dispatch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic automaton over path characters compiled from every pattern of a rule table.
+ * <p>
+ * Each pattern becomes a small NFA whose separator transitions mark segment boundaries: literal and glob
+ * segments consume their characters, {@code {var}} loops over non-separator characters and {@code **}
+ * loops over whole segments. The DFA states are built lazily by subset construction the first time a
+ * (state, character class) transition is taken and are cached afterwards, so a lookup is a single
+ * left-to-right scan of the path no matter how many patterns are registered. The accepting state reports
+ * the indexes of all rules whose pattern matches.
+ * <p>
+ * Globs are matched with full {@code *}/{@code ?} semantics, which may accept a little more than the
+ * greedy per-segment matcher for paths containing {@code '*'}, and typed variables such as
+ * {@code {id:long}} are indexed like plain ones; callers confirm those candidates. Patterns made only of
+ * literal and {@code **} segments are decided exactly and capture nothing, see {@link #decides(int)}. Only
+ * single-character separators are supported. Once {@link #MAX_CACHED_STATES} states exist, new states are
+ * still computed but no longer cached, which bounds memory for pathological pattern sets.
+ */
+final class PathDfa {
+    static final int MAX_CACHED_STATES = 4096;
+
+    private static final int[] NO_RULES = new int[0];
+    private static final int NONE = -1;
+    private static final int SEPARATOR_CLASS = 0;
+    private static final int OTHER_CLASS = 1;
+
+    private final String pathSeparator;
+    private final char separator;
+    private final Nfa nfa = new Nfa();
+    private final int[] asciiClasses = new int[128];
+    private final Map<Character, Integer> otherClasses = new HashMap<>();
+    private final int classCount;
+    private final int[] classChars;
+    private final int[] emptyPathRules;
+    private final boolean[] decided;
+    private final Map<StateKey, DfaState> states = new HashMap<>();
+    private final DfaState dead;
+    private final DfaState initial;
+
+    PathDfa(List<CompiledPathPattern> patterns, String pathSeparator) {
+        if (pathSeparator.length() != 1) {
+            throw new IllegalArgumentException("DFA index requires a single-character separator: " + pathSeparator);
+        }
+        this.pathSeparator = pathSeparator;
+        this.separator = pathSeparator.charAt(0);
+
+        Arrays.fill(asciiClasses, OTHER_CLASS);
+        StringBuilder alphabet = new StringBuilder();
+        int[] starts = new int[patterns.size()];
+        int startCount = 0;
+        int[] emptyMatches = new int[patterns.size()];
+        int emptyCount = 0;
+        this.decided = new boolean[patterns.size()];
+        for (int rule = 0; rule < patterns.size(); rule++) {
+            CompiledPathPattern pattern = patterns.get(rule);
+            decided[rule] = isDecidedExactly(pattern);
+            if (pattern.segmentCount() > 0) {
+                starts[startCount++] = compile(pattern, rule, alphabet);
+            }
+            if (pattern.matches("")) {
+                emptyMatches[emptyCount++] = rule;
+            }
+        }
+        this.emptyPathRules = Arrays.copyOf(emptyMatches, emptyCount);
+
+        this.classChars = new int[alphabet.length() + 2];
+        this.classChars[SEPARATOR_CLASS] = separator;
+        this.classChars[OTHER_CLASS] = NONE;
+        for (int i = 0; i < alphabet.length(); i++) {
+            char c = alphabet.charAt(i);
+            int cls = i + 2;
+            classChars[cls] = c;
+            if (c < asciiClasses.length) {
+                asciiClasses[c] = cls;
+            } else {
+                otherClasses.put(c, cls);
+            }
+        }
+        this.classCount = classChars.length;
+        this.dead = intern(new int[0]);
+        this.initial = intern(closure(Arrays.copyOf(starts, startCount)));
+    }
+
+    /**
+     * Runs the automaton once; callers iterate the returned set instead of asking for candidates one by one.
+     *
+     * @return rules accepting the whole path in ascending order; the array is shared and must not be modified
+     */
+    int[] match(CharSequence path) {
+        if (path == null || path.length() == 0) {
+            return emptyPathRules;
+        }
+        int start = PathSegments.trimmedStart(path, pathSeparator);
+        int end = PathSegments.trimmedEnd(path, start, pathSeparator);
+        DfaState state = initial;
+        for (int i = start; i < end; i++) {
+            int cls = classOf(path.charAt(i));
+            DfaState next = state.next[cls];
+            if (next == null) {
+                next = transition(state, cls);
+            }
+            if (next == dead) {
+                return NO_RULES;
+            }
+            state = next;
+        }
+        return state.accepts;
+    }
+
+    /**
+     * @return whether acceptance of {@code rule} by {@link #match} is conclusive and the rule declares no
+     * variables, so the per-rule matcher does not need to run for it
+     */
+    boolean decides(int rule) {
+        return decided[rule];
+    }
+
+    private static boolean isDecidedExactly(CompiledPathPattern pattern) {
+        for (int i = 0; i < pattern.segmentCount(); i++) {
+            CompiledPathPattern.SegmentKind kind = pattern.kind(i);
+            if (kind != CompiledPathPattern.SegmentKind.LITERAL
+                    && kind != CompiledPathPattern.SegmentKind.DOUBLE_WILDCARD) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of DFA states built so far
+     */
+    synchronized int stateCount() {
+        return states.size();
+    }
+
+    private int classOf(char c) {
+        if (c == separator) {
+            return SEPARATOR_CLASS;
+        }
+        if (c < asciiClasses.length) {
+            return asciiClasses[c];
+        }
+        Integer cls = otherClasses.get(c);
+        return cls != null ? cls : OTHER_CLASS;
+    }
+
+    /**
+     * Adds the NFA of one pattern.
+     *
+     * @return start state of the pattern
+     */
+    private int compile(CompiledPathPattern pattern, int rule, StringBuilder alphabet) {
+        int count = pattern.segmentCount();
+        int[] segmentStarts = new int[count];
+        int[] segmentEnds = new int[count];
+        for (int i = 0; i < count; i++) {
+            String segment = pattern.segment(i);
+            switch (pattern.kind(i)) {
+                case LITERAL: {
+                    int state = nfa.newState();
+                    segmentStarts[i] = state;
+                    for (int k = 0; k < segment.length(); k++) {
+                        int next = nfa.newState();
+                        nfa.charOf[state] = segment.charAt(k);
+                        nfa.charTarget[state] = next;
+                        addToAlphabet(alphabet, segment.charAt(k));
+                        state = next;
+                    }
+                    segmentEnds[i] = state;
+                    break;
+                }
+                case GLOB: {
+                    int state = nfa.newState();
+                    segmentStarts[i] = state;
+                    for (int k = 0; k < segment.length(); k++) {
+                        char c = segment.charAt(k);
+                        int next = nfa.newState();
+                        if (c == '*') {
+                            nfa.anyTarget[state] = state;
+                            nfa.addEpsilon(state, next);
+                        } else if (c == '?') {
+                            nfa.anyTarget[state] = next;
+                        } else {
+                            nfa.charOf[state] = c;
+                            nfa.charTarget[state] = next;
+                            addToAlphabet(alphabet, c);
+                        }
+                        state = next;
+                    }
+                    segmentEnds[i] = state;
+                    break;
+                }
+                case DOUBLE_WILDCARD: {
+                    // start: either skip to the next token or consume this segment and come back
+                    segmentStarts[i] = nfa.newState();
+                    int inside = nfa.newState();
+                    nfa.anyTarget[inside] = inside;
+                    nfa.addEpsilon(segmentStarts[i], inside);
+                    segmentEnds[i] = inside;
+                    break;
+                }
+                default: {
+                    int state = nfa.newState();
+                    nfa.anyTarget[state] = state;
+                    segmentStarts[i] = state;
+                    segmentEnds[i] = state;
+                    break;
+                }
+            }
+        }
+        boolean restOptional = true;
+        for (int i = count - 1; i >= 0; i--) {
+            boolean doubleWildcard = pattern.kind(i) == CompiledPathPattern.SegmentKind.DOUBLE_WILDCARD;
+            int following = i + 1 < count ? segmentStarts[i + 1] : NONE;
+            if (doubleWildcard) {
+                if (following != NONE) {
+                    nfa.addEpsilon(segmentStarts[i], following);
+                }
+                nfa.sepTarget[segmentEnds[i]] = segmentStarts[i];
+            } else {
+                nfa.sepTarget[segmentEnds[i]] = following;
+            }
+            if (restOptional) {
+                nfa.acceptRule[segmentEnds[i]] = rule;
+            }
+            restOptional &= doubleWildcard;
+        }
+        return segmentStarts[0];
+    }
+
+    private void addToAlphabet(StringBuilder alphabet, char c) {
+        if (c != separator && alphabet.indexOf(String.valueOf(c)) < 0) {
+            alphabet.append(c);
+        }
+    }
+
+    private synchronized DfaState transition(DfaState from, int cls) {
+        DfaState next = from.next[cls];
+        if (next != null) {
+            return next;
+        }
+        int[] targets = new int[from.nfaStates.length * 2];
+        int count = 0;
+        int classChar = classChars[cls];
+        for (int state : from.nfaStates) {
+            if (cls == SEPARATOR_CLASS) {
+                if (nfa.sepTarget[state] != NONE) {
+                    targets[count++] = nfa.sepTarget[state];
+                }
+                continue;
+            }
+            if (classChar != NONE && nfa.charOf[state] == classChar) {
+                targets[count++] = nfa.charTarget[state];
+            }
+            if (nfa.anyTarget[state] != NONE) {
+                targets[count++] = nfa.anyTarget[state];
+            }
+        }
+        next = intern(closure(Arrays.copyOf(targets, count)));
+        if (next.cached) {
+            from.next[cls] = next;
+        }
+        return next;
+    }
+
+    /**
+     * @return sorted epsilon closure of the given NFA states
+     */
+    private int[] closure(int[] seeds) {
+        boolean[] seen = new boolean[nfa.size];
+        int[] stack = new int[nfa.size];
+        int top = 0;
+        int count = 0;
+        for (int seed : seeds) {
+            if (!seen[seed]) {
+                seen[seed] = true;
+                stack[top++] = seed;
+                count++;
+            }
+        }
+        while (top > 0) {
+            int state = stack[--top];
+            int[] epsilons = nfa.epsilons[state];
+            if (epsilons == null) {
+                continue;
+            }
+            for (int target : epsilons) {
+                if (!seen[target]) {
+                    seen[target] = true;
+                    stack[top++] = target;
+                    count++;
+                }
+            }
+        }
+        int[] result = new int[count];
+        int index = 0;
+        for (int state = 0; state < seen.length; state++) {
+            if (seen[state]) {
+                result[index++] = state;
+            }
+        }
+        return result;
+    }
+
+    private DfaState intern(int[] nfaStates) {
+        StateKey key = new StateKey(nfaStates);
+        DfaState state = states.get(key);
+        if (state == null) {
+            boolean cached = states.size() < MAX_CACHED_STATES;
+            state = new DfaState(nfaStates, acceptsOf(nfaStates), classCount, cached);
+            if (cached) {
+                states.put(key, state);
+            }
+        }
+        return state;
+    }
+
+    private int[] acceptsOf(int[] nfaStates) {
+        int[] rules = new int[nfaStates.length];
+        int count = 0;
+        for (int state : nfaStates) {
+            if (nfa.acceptRule[state] != NONE) {
+                rules[count++] = nfa.acceptRule[state];
+            }
+        }
+        if (count == 0) {
+            return NO_RULES;
+        }
+        Arrays.sort(rules, 0, count);
+        int unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (rules[i] != rules[unique - 1]) {
+                rules[unique++] = rules[i];
+            }
+        }
+        return Arrays.copyOf(rules, unique);
+    }
+
+    /**
+     * Lazily expanded DFA state; transitions are published racily, which is safe because every field read
+     * through them is final.
+     */
+    private static final class DfaState {
+        private final int[] nfaStates;
+        private final int[] accepts;
+        private final DfaState[] next;
+        private final boolean cached;
+
+        private DfaState(int[] nfaStates, int[] accepts, int classCount, boolean cached) {
+            this.nfaStates = nfaStates;
+            this.accepts = accepts;
+            this.next = new DfaState[classCount];
+            this.cached = cached;
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] states;
+        private final int hash;
+
+        private StateKey(int[] states) {
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(states, ((StateKey) o).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Growable NFA storage; a state has at most one specific-character edge, one any-character edge, one
+     * separator edge and any number of epsilon edges.
+     */
+    private static final class Nfa {
+        private int size;
+        private int[] charOf = new int[0];
+        private int[] charTarget = new int[0];
+        private int[] anyTarget = new int[0];
+        private int[] sepTarget = new int[0];
+        private int[] acceptRule = new int[0];
+        private int[][] epsilons = new int[0][];
+
+        private int newState() {
+            if (size == charOf.length) {
+                int capacity = Math.max(16, size * 2);
+                charOf = grow(charOf, capacity);
+                charTarget = grow(charTarget, capacity);
+                anyTarget = grow(anyTarget, capacity);
+                sepTarget = grow(sepTarget, capacity);
+                acceptRule = grow(acceptRule, capacity);
+                epsilons = Arrays.copyOf(epsilons, capacity);
+            }
+            return size++;
+        }
+
+        private void addEpsilon(int from, int to) {
+            int[] current = epsilons[from];
+            if (current == null) {
+                epsilons[from] = new int[]{to};
+            } else {
+                int[] grown = Arrays.copyOf(current, current.length + 1);
+                grown[current.length] = to;
+                epsilons[from] = grown;
+            }
+        }
+
+        private static int[] grow(int[] values, int capacity) {
+            int[] grown = Arrays.copyOf(values, capacity);
+            Arrays.fill(grown, values.length, capacity, NONE);
+            return grown;
+        }
+    }
+}
@@ -1,20 +1,77 @@
 package com.dopkit.dispatch;
 
-import java.util.Collections;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Result of matching a path pattern against an actual path.
+ * <p>
+ * Variables are kept in flat slot arrays: results produced by {@link CompiledPathPattern} only record the
+ * offsets of captured segments and create each value the first time it is read. {@link #getVariable(int)}
+ * and {@link #getVariable(String)} never build a map; {@link #getVariables()} is a read-only view over the
+ * same arrays. Variables declared as {@code {name:long}}, {@code {name:int}} or {@code {name:uuid}} are
+ * validated during matching and their values are kept in primitive form for {@link #getLong(String)},
+ * {@link #getInt(String)} and {@link #getUuid(String)}; for other variables those accessors parse the string.
  */
 public final class PathMatchResult {
+    private static final String[] NO_NAMES = new String[0];
+
     private final String pattern;
     private final String path;
-    private final Map<String, String> variables;
+    private final String[] variableNames;
+    private final int[] spans;
+    private final String[] values;
+    private final CompiledPathPattern.VariableType[] slotTypes;
+    private final long[] primitives;
+    private Map<String, String> variablesView;
 
     public PathMatchResult(String pattern, String path, Map<String, String> variables) {
         this.pattern = pattern;
         this.path = path;
-        this.variables = variables == null ? Collections.emptyMap() : Collections.unmodifiableMap(variables);
+        this.spans = null;
+        this.slotTypes = null;
+        this.primitives = null;
+        if (variables == null || variables.isEmpty()) {
+            this.variableNames = NO_NAMES;
+            this.values = NO_NAMES;
+        } else {
+            this.variableNames = new String[variables.size()];
+            this.values = new String[variables.size()];
+            int slot = 0;
+            for (Map.Entry<String, String> entry : variables.entrySet()) {
+                variableNames[slot] = entry.getKey();
+                values[slot] = entry.getValue();
+                slot++;
+            }
+        }
+    }
+
+    /**
+     * @param variableNames names by slot, shared with the compiled pattern
+     * @param spans         {@code [start, end)} offsets into {@code path} per slot, or {@code null} when
+     *                      there are no variables
+     * @param slotTypes     declared type per slot, shared with the compiled pattern
+     * @param primitives    parsed values, two longs per slot, or {@code null} when no slot is typed
+     */
+    PathMatchResult(
+            String pattern,
+            String path,
+            String[] variableNames,
+            int[] spans,
+            CompiledPathPattern.VariableType[] slotTypes,
+            long[] primitives) {
+        this.pattern = pattern;
+        this.path = path;
+        this.variableNames = variableNames == null ? NO_NAMES : variableNames;
+        this.spans = spans;
+        this.values = spans == null ? NO_NAMES : new String[this.variableNames.length];
+        this.slotTypes = slotTypes;
+        this.primitives = primitives;
     }
 
     public String getPattern() {
@@ -25,7 +82,158 @@ public final class PathMatchResult {
         return path;
     }
 
+    public int getVariableCount() {
+        return variableNames.length;
+    }
+
+    public String getVariableName(int slot) {
+        return variableNames[slot];
+    }
+
+    /**
+     * @return value captured in the given slot (slots follow the order variables appear in the pattern)
+     */
+    public String getVariable(int slot) {
+        String value = values[slot];
+        if (value == null && spans != null) {
+            // benign race: every thread computes the same immutable string
+            value = path.substring(spans[slot * 2], spans[slot * 2 + 1]);
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    /**
+     * @return value of the named variable, or {@code null} when the pattern has no such variable
+     */
+    public String getVariable(String name) {
+        int slot = slotOf(name);
+        return slot < 0 ? null : getVariable(slot);
+    }
+
+    public long getLong(int slot) {
+        if (isPrimitive(slot, CompiledPathPattern.VariableType.LONG)
+                || isPrimitive(slot, CompiledPathPattern.VariableType.INT)) {
+            return primitives[slot * 2];
+        }
+        return Long.parseLong(getVariable(slot));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the pattern has no such variable
+     */
+    public long getLong(String name) {
+        return getLong(requireSlot(name));
+    }
+
+    public int getInt(int slot) {
+        if (isPrimitive(slot, CompiledPathPattern.VariableType.INT)) {
+            return (int) primitives[slot * 2];
+        }
+        return Integer.parseInt(getVariable(slot));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the pattern has no such variable
+     */
+    public int getInt(String name) {
+        return getInt(requireSlot(name));
+    }
+
+    public UUID getUuid(int slot) {
+        if (isPrimitive(slot, CompiledPathPattern.VariableType.UUID)) {
+            return new UUID(primitives[slot * 2], primitives[slot * 2 + 1]);
+        }
+        return UUID.fromString(getVariable(slot));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the pattern has no such variable
+     */
+    public UUID getUuid(String name) {
+        return getUuid(requireSlot(name));
+    }
+
+    private boolean isPrimitive(int slot, CompiledPathPattern.VariableType type) {
+        return primitives != null && slotTypes[slot] == type;
+    }
+
+    private int requireSlot(String name) {
+        int slot = slotOf(name);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Unknown path variable: " + name);
+        }
+        return slot;
+    }
+
+    /**
+     * @return read-only map view over the variable slots
+     */
     public Map<String, String> getVariables() {
-        return variables;
+        Map<String, String> view = variablesView;
+        if (view == null) {
+            view = new VariablesView();
+            variablesView = view;
+        }
+        return view;
+    }
+
+    private int slotOf(Object name) {
+        for (int i = 0; i < variableNames.length; i++) {
+            if (variableNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private final class VariablesView extends AbstractMap<String, String> {
+
+        @Override
+        public int size() {
+            return variableNames.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return slotOf(key) >= 0;
+        }
+
+        @Override
+        public String get(Object key) {
+            int slot = slotOf(key);
+            return slot < 0 ? null : getVariable(slot);
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<Entry<String, String>>() {
+                @Override
+                public int size() {
+                    return variableNames.length;
+                }
+
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<Entry<String, String>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < variableNames.length;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if (next >= variableNames.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int slot = next++;
+                            return new SimpleImmutableEntry<>(variableNames[slot], getVariable(slot));
+                        }
+                    };
+                }
+            };
+        }
     }
 }
@@ -0,0 +1,199 @@
+package com.dopkit.dispatch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Segment trie over compiled path patterns.
+ * <p>
+ * Literal segments are indexed by an open-addressing table per node that is probed directly with path
+ * offsets (no substrings are created during lookup); {@code {var}} and glob segments share a
+ * single-segment edge and {@code **} has its own edge. A lookup walks the trie for the smallest rule index
+ * after a given one whose pattern may match, skipping subtrees whose smallest rule cannot improve on the best
+ * hit so far; it allocates nothing. Glob edges over-approximate, so callers must confirm every candidate with
+ * the rule's own {@link CompiledPathPattern}.
+ */
+final class PathSegmentTrie implements PathCandidateIndex {
+    private static final int[] NO_CANDIDATES = new int[0];
+    private static final int END = -1;
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final Node root = new Node();
+    private final String pathSeparator;
+
+    PathSegmentTrie(List<CompiledPathPattern> patterns, String pathSeparator) {
+        this.pathSeparator = pathSeparator;
+        for (int i = 0; i < patterns.size(); i++) {
+            insert(patterns.get(i), i);
+        }
+        root.freeze();
+    }
+
+    private void insert(CompiledPathPattern pattern, int ruleIndex) {
+        Node node = root;
+        for (int i = 0; i < pattern.segmentCount(); i++) {
+            switch (pattern.kind(i)) {
+                case LITERAL:
+                    if (node.literals == null) {
+                        node.literals = new HashMap<>();
+                    }
+                    node = node.literals.computeIfAbsent(pattern.segment(i), key -> new Node());
+                    break;
+                case DOUBLE_WILDCARD:
+                    if (node.multi == null) {
+                        node.multi = new Node();
+                    }
+                    node = node.multi;
+                    break;
+                default:
+                    if (node.single == null) {
+                        node.single = new Node();
+                    }
+                    node = node.single;
+                    break;
+            }
+        }
+        node.addTerminal(ruleIndex);
+    }
+
+    @Override
+    public int next(CharSequence path, int after) {
+        int best;
+        if (path == null || path.length() == 0) {
+            best = first(root, path, END, 0, after, NONE);
+        } else {
+            int start = PathSegments.trimmedStart(path, pathSeparator);
+            best = first(root, path, start, PathSegments.trimmedEnd(path, start, pathSeparator), after, NONE);
+        }
+        return best == NONE ? -1 : best;
+    }
+
+    /**
+     * @param pos  start offset of the next segment, or {@link #END} when all segments are consumed
+     * @param best smallest candidate found so far, or {@link #NONE}
+     * @return smallest candidate greater than {@code after} in this subtree, if smaller than {@code best}
+     */
+    private int first(Node node, CharSequence path, int pos, int end, int after, int best) {
+        if (node.subtreeMax <= after || node.subtreeMin >= best) {
+            return best;
+        }
+        if (pos == END) {
+            best = node.firstTerminal(after, best);
+            if (node.multi != null) {
+                best = first(node.multi, path, END, end, after, best);
+            }
+            return best;
+        }
+        int segEnd = PathSegments.segmentEnd(path, pos, end, pathSeparator);
+        int next = segEnd == end ? END : segEnd + pathSeparator.length();
+        if (node.literalKeys != null) {
+            Node literal = node.findLiteral(path, pos, segEnd);
+            if (literal != null) {
+                best = first(literal, path, next, end, after, best);
+            }
+        }
+        if (node.single != null) {
+            best = first(node.single, path, next, end, after, best);
+        }
+        if (node.multi != null) {
+            int from = pos;
+            while (true) {
+                best = first(node.multi, path, from, end, after, best);
+                if (from == END) {
+                    break;
+                }
+                int fromEnd = PathSegments.segmentEnd(path, from, end, pathSeparator);
+                from = fromEnd == end ? END : fromEnd + pathSeparator.length();
+            }
+        }
+        return best;
+    }
+
+    private static final class Node {
+        private Map<String, Node> literals;
+        private String[] literalKeys;
+        private Node[] literalNodes;
+        private Node single;
+        private Node multi;
+        private int[] terminals = NO_CANDIDATES;
+        private int terminalCount;
+        /**
+         * Smallest and largest rule index anywhere below this node, set by {@link #freeze()}.
+         */
+        private int subtreeMin = NONE;
+        private int subtreeMax = -1;
+
+        private void addTerminal(int ruleIndex) {
+            if (terminalCount == terminals.length) {
+                terminals = Arrays.copyOf(terminals, Math.max(2, terminalCount * 2));
+            }
+            terminals[terminalCount++] = ruleIndex;
+        }
+
+        /**
+         * Terminals are added in ascending rule order.
+         */
+        private int firstTerminal(int after, int best) {
+            for (int i = 0; i < terminalCount; i++) {
+                int ruleIndex = terminals[i];
+                if (ruleIndex > after) {
+                    return Math.min(ruleIndex, best);
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Converts the build-time literal map into a probe table keyed by {@link String#hashCode()} and
+         * records the subtree rule range.
+         */
+        private void freeze() {
+            if (terminalCount > 0) {
+                subtreeMin = terminals[0];
+                subtreeMax = terminals[terminalCount - 1];
+            }
+            if (literals != null) {
+                int capacity = Integer.highestOneBit(Math.max(2, literals.size() * 2 - 1)) << 1;
+                literalKeys = new String[capacity];
+                literalNodes = new Node[capacity];
+                for (Map.Entry<String, Node> entry : literals.entrySet()) {
+                    int slot = entry.getKey().hashCode() & (capacity - 1);
+                    while (literalKeys[slot] != null) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+                    literalKeys[slot] = entry.getKey();
+                    literalNodes[slot] = entry.getValue();
+                    include(entry.getValue());
+                }
+                literals = null;
+            }
+            if (single != null) {
+                include(single);
+            }
+            if (multi != null) {
+                include(multi);
+            }
+        }
+
+        private void include(Node child) {
+            child.freeze();
+            subtreeMin = Math.min(subtreeMin, child.subtreeMin);
+            subtreeMax = Math.max(subtreeMax, child.subtreeMax);
+        }
+
+        private Node findLiteral(CharSequence path, int from, int to) {
+            int mask = literalKeys.length - 1;
+            int slot = PathSegments.hash(path, from, to) & mask;
+            String key;
+            while ((key = literalKeys[slot]) != null) {
+                if (PathSegments.segmentEquals(path, from, to, key)) {
+                    return literalNodes[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.dopkit.dispatch;
+
+/**
+ * Offset-based path segmentation helpers.
+ * <p>
+ * Walks a path as a {@link CharSequence} with start/end offsets and produces exactly the segments
+ * {@link AntPathMatcher#tokenize(String, String)} would, without creating substrings or arrays.
+ */
+final class PathSegments {
+
+    private PathSegments() {
+    }
+
+    /**
+     * @return offset of the first segment after stripping one leading separator
+     */
+    static int trimmedStart(CharSequence path, String separator) {
+        return regionEquals(path, 0, path.length(), separator) ? separator.length() : 0;
+    }
+
+    /**
+     * @return end offset after stripping one trailing separator
+     */
+    static int trimmedEnd(CharSequence path, int start, String separator) {
+        int end = path.length();
+        if (end - start >= separator.length() && regionEquals(path, end - separator.length(), end, separator)) {
+            return end - separator.length();
+        }
+        return end;
+    }
+
+    /**
+     * Number of segments in {@code [start, end)}; a non-empty path always has at least one (possibly empty)
+     * segment.
+     */
+    static int count(CharSequence path, int start, int end, String separator) {
+        int count = 1;
+        int index = start;
+        while ((index = indexOf(path, separator, index, end)) >= 0) {
+            count++;
+            index += separator.length();
+        }
+        return count;
+    }
+
+    /**
+     * @return end offset (exclusive) of the segment starting at {@code from}
+     */
+    static int segmentEnd(CharSequence path, int from, int end, String separator) {
+        int index = indexOf(path, separator, from, end);
+        return index < 0 ? end : index;
+    }
+
+    static int indexOf(CharSequence path, String separator, int from, int end) {
+        int last = end - separator.length();
+        char first = separator.charAt(0);
+        for (int i = from; i <= last; i++) {
+            if (path.charAt(i) == first && regionEquals(path, i, end, separator)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return whether {@code text} occurs at {@code offset} without crossing {@code end}
+     */
+    static boolean regionEquals(CharSequence path, int offset, int end, String text) {
+        int length = text.length();
+        if (end - offset < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (path.charAt(offset + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether segment {@code [from, to)} equals {@code literal}
+     */
+    static boolean segmentEquals(CharSequence path, int from, int to, String literal) {
+        return to - from == literal.length() && regionEquals(path, from, to, literal);
+    }
+
+    /**
+     * @return whether {@code [from, to)} is an optionally signed run of ASCII digits within {@code [min, max]}
+     */
+    static boolean isDecimal(CharSequence path, int from, int to, long min, long max) {
+        if (from >= to) {
+            return false;
+        }
+        int i = from;
+        boolean negative = false;
+        char first = path.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == to) {
+                return false;
+            }
+        }
+        // accumulate negatively so Long.MIN_VALUE does not overflow
+        long limit = negative ? min : -max;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = path.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        return true;
+    }
+
+    /**
+     * Parses a segment already validated by {@link #isDecimal}.
+     */
+    static long parseDecimal(CharSequence path, int from, int to) {
+        int i = from;
+        boolean negative = path.charAt(i) == '-';
+        if (negative || path.charAt(i) == '+') {
+            i++;
+        }
+        long result = 0;
+        for (; i < to; i++) {
+            result = result * 10 - (path.charAt(i) - '0');
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * @return whether {@code [from, to)} is a UUID in canonical {@code 8-4-4-4-12} hex form
+     */
+    static boolean isUuid(CharSequence path, int from, int to) {
+        if (to - from != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = path.charAt(from + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (hexValue(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return hex digits of {@code [from, to)} as a long, skipping {@code '-'}
+     */
+    static long parseHex(CharSequence path, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c != '-') {
+                result = (result << 4) | hexValue(c);
+            }
+        }
+        return result;
+    }
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Java-compatible {@link String#hashCode()} of a segment, so it can probe tables keyed by strings.
+     */
+    static int hash(CharSequence path, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        return hash;
+    }
+}
@@ -1,6 +1,8 @@
 package com.dopkit.router;
 
 import com.dopkit.dispatch.ActionMatchMode;
+import com.dopkit.dispatch.ActionPathIndexMode;
+import com.dopkit.dispatch.ActionPathLookupCache;
 import com.dopkit.dispatch.PathActionDispatchContext;
 import com.dopkit.dispatch.ActionPathDispatchRequest;
 import com.dopkit.dispatch.PathActionMatchRule;
@@ -13,6 +15,7 @@ import com.dopkit.dispatch.PathMatchResult;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -20,27 +23,95 @@ import java.util.function.Function;
 
 /**
  * Router that matches both path patterns and actions.
+ * <p>
+ * Routes are kept in an immutable snapshot. Every write builds the new rule list and compiles its rule table on
+ * the writer's thread, then publishes it with a single volatile swap; dispatch only reads the current table,
+ * so it never blocks, never compiles and never observes a half-built index. Writers are serialized among
+ * themselves. Each write recompiles the whole table, so bulk setup should use {@link #registerAll}, which
+ * publishes the whole batch with one compile.
  */
 public class GenericPathActionRouter
         <TRuntime, TRequest, TResponse, TAction> {
 
     private final Function<TRequest, String> pathExtractor;
     private final AntPathMatcher pathMatcher;
-    private final List<PathActionMatchRule<TResponse, TAction>> rules;
+    private final ActionPathIndexMode indexMode;
+    private final Object writeLock = new Object();
     private final DispatchEngine<TResponse> dispatchEngine;
+    private volatile List<PathActionMatchRule<TResponse, TAction>> rules = Collections.emptyList();
+    private volatile ActionPathLookupCache lookupCache;
 
     public GenericPathActionRouter(Function<TRequest, String> pathExtractor) {
         this(pathExtractor, new AntPathMatcher());
     }
 
     public GenericPathActionRouter(Function<TRequest, String> pathExtractor, AntPathMatcher matcher) {
+        this(pathExtractor, matcher, ActionPathIndexMode.LINEAR);
+    }
+
+    /**
+     * @param indexMode lookup structure used for dispatch, see {@link ActionPathIndexMode}
+     */
+    public GenericPathActionRouter(
+            Function<TRequest, String> pathExtractor,
+            AntPathMatcher matcher,
+            ActionPathIndexMode indexMode) {
         this.pathExtractor = Objects.requireNonNull(pathExtractor, "pathExtractor");
         this.pathMatcher = matcher == null ? new AntPathMatcher() : matcher;
-        this.rules = new ArrayList<>();
+        this.indexMode = indexMode == null ? ActionPathIndexMode.LINEAR : indexMode;
         this.dispatchEngine = new DispatchEngine<>();
-        this.dispatchEngine.registerStrategy(
+        synchronized (writeLock) {
+            publish(rules);
+        }
+    }
+
+    /**
+     * Compiles the given rule list into a fresh ACTION_PATH config and swaps it in; cached lookups of the
+     * previous table are dropped. Callers hold {@link #writeLock}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void publish(List<PathActionMatchRule<TResponse, TAction>> snapshot) {
+        ActionPathLookupCache cache = lookupCache;
+        dispatchEngine.registerStrategy(
                 DispatchStrategyConfig.forActionPathStrategy(
-                        new DispatchStrategyConfig.ActionPathDispatchConfig<>(this.pathMatcher, (List) rules)));
+                        new DispatchStrategyConfig.ActionPathDispatchConfig<>(
+                                pathMatcher, (List) snapshot, indexMode, cache).precompile()));
+        rules = snapshot;
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
+    private void append(List<PathActionMatchRule<TResponse, TAction>> added) {
+        synchronized (writeLock) {
+            List<PathActionMatchRule<TResponse, TAction>> snapshot = new ArrayList<>(rules.size() + added.size());
+            snapshot.addAll(rules);
+            snapshot.addAll(added);
+            publish(Collections.unmodifiableList(snapshot));
+        }
+    }
+
+    /**
+     * Enables a bounded (action, path) lookup cache in front of rule matching. Worth it when a small set
+     * of concrete paths dominates traffic; unmatched requests are cached as well. Registering a route
+     * invalidates the cache.
+     *
+     * @param capacity maximum number of cached (action, path) pairs
+     */
+    public GenericPathActionRouter<TRuntime, TRequest, TResponse, TAction> enableLookupCache(int capacity) {
+        ActionPathLookupCache cache = new ActionPathLookupCache(capacity);
+        synchronized (writeLock) {
+            this.lookupCache = cache;
+            publish(rules);
+        }
+        return this;
+    }
+
+    /**
+     * @return lookup cache with its hit/miss counters, or {@code null} when not enabled
+     */
+    public ActionPathLookupCache getLookupCache() {
+        return lookupCache;
     }
 
     public GenericPathActionRouter<TRuntime, TRequest, TResponse, TAction> registerPathAllActions(
@@ -71,12 +142,21 @@ public class GenericPathActionRouter
         return register(route.getPattern(), route.getHandler(), route.getMode(), route.getActions());
     }
 
+    /**
+     * Registers all routes and publishes them as one snapshot with a single compile; use it for bulk setup.
+     */
     public GenericPathActionRouter<TRuntime, TRequest, TResponse, TAction> registerAll(
             Collection<? extends PathActionRoute<TRuntime, TRequest, TResponse, TAction>> routeList) {
-        if (routeList == null) {
+        if (routeList == null || routeList.isEmpty()) {
             return this;
         }
-        routeList.forEach(this::register);
+        List<PathActionMatchRule<TResponse, TAction>> added = new ArrayList<>(routeList.size());
+        for (PathActionRoute<TRuntime, TRequest, TResponse, TAction> route : routeList) {
+            if (route != null) {
+                added.add(toRule(route.getPattern(), route.getHandler(), route.getMode(), route.getActions()));
+            }
+        }
+        append(added);
         return this;
     }
 
@@ -85,6 +165,31 @@ public class GenericPathActionRouter
             ComponentHandler<TRuntime, TRequest, PathMatchResult, TResponse> handler,
             ActionMatchMode mode,
             Set<TAction> actions) {
+        append(Collections.singletonList(toRule(pattern, handler, mode, actions)));
+        return this;
+    }
+
+    /**
+     * Removes every route registered with the given pattern.
+     *
+     * @return whether any route was removed
+     */
+    public boolean unregister(String pattern) {
+        synchronized (writeLock) {
+            List<PathActionMatchRule<TResponse, TAction>> snapshot = new ArrayList<>(rules);
+            if (!snapshot.removeIf(rule -> rule.getPattern().equals(pattern))) {
+                return false;
+            }
+            publish(Collections.unmodifiableList(snapshot));
+            return true;
+        }
+    }
+
+    private PathActionMatchRule<TResponse, TAction> toRule(
+            String pattern,
+            ComponentHandler<TRuntime, TRequest, PathMatchResult, TResponse> handler,
+            ActionMatchMode mode,
+            Set<TAction> actions) {
         Objects.requireNonNull(handler, "handler");
         PathActionRuleHandler<TResponse> ruleHandler = context -> {
             @SuppressWarnings("unchecked")
@@ -93,8 +198,7 @@ public class GenericPathActionRouter
             TRequest request = (TRequest) context.getRequest();
             return handler.handle(runtime, request, context.getPathMatchResult());
         };
-        rules.add(new PathActionMatchRule<>(pattern, mode, actions, ruleHandler));
-        return this;
+        return new PathActionMatchRule<>(pattern, mode, actions, ruleHandler);
     }
 
     public TResponse dispatch(TRuntime runtime, TRequest request, TAction action) {
@@ -106,6 +210,10 @@ public class GenericPathActionRouter
         return result.isHandled() ? result.getResult() : null;
     }
 
+    public ActionPathIndexMode getIndexMode() {
+        return indexMode;
+    }
+
     public int getRegistrationCount() {
         return rules.size();
     }
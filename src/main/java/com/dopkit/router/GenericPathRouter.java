@@ -1,6 +1,7 @@
 package com.dopkit.router;
 
 import com.dopkit.dispatch.ActionMatchMode;
+import com.dopkit.dispatch.ActionPathIndexMode;
 import com.dopkit.dispatch.PathMatchResult;
 
 import java.util.Objects;
@@ -20,6 +21,13 @@ public class GenericPathRouter<TRuntime, TRequest, TResponse>
         super(pathExtractor, matcher);
     }
 
+    public GenericPathRouter(
+            Function<TRequest, String> pathExtractor,
+            com.dopkit.dispatch.AntPathMatcher matcher,
+            ActionPathIndexMode indexMode) {
+        super(pathExtractor, matcher, indexMode);
+    }
+
     public GenericPathRouter<TRuntime, TRequest, TResponse> register(
             String pattern,
             ComponentHandler<TRuntime, TRequest, PathMatchResult, TResponse> handler) {
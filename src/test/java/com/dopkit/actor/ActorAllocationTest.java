@@ -0,0 +1,76 @@
+package com.dopkit.actor;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation-rate check for the actor hot path: handlers return a preallocated result, so every byte
+ * measured on the calling thread comes from the framework.
+ */
+class ActorAllocationTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int CALLS = 100_000;
+
+    enum Op {
+        PING
+    }
+
+    @Test
+    void classEnumAndRouteKeyDispatchAllocateNothing() {
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        PingActor actor = new PingActor();
+        Object input = "input";
+
+        Runnable calls = () -> {
+            actor.call(input);
+            actor.callByEnum(Op.PING, input);
+            actor.callByRouteKey("ping", input);
+        };
+        for (int i = 0; i < WARMUP; i++) {
+            calls.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++) {
+            calls.run();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(PingActor.PONG, actor.call(input));
+        // slack for the measurement itself; one allocation per call would already be >= 1.6 MB
+        assertTrue(allocated < 4096, "framework allocated " + allocated + " bytes over " + CALLS + " rounds");
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "per-thread allocation counter unavailable");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "per-thread allocation counter unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static final class PingActor extends AbstractActor<String> {
+        private static final String PONG = "pong";
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            return ActorRouteBuilder.<String>create()
+                    .match(String.class, Sets.newHashSet("ping"), Sets.newHashSet(Op.PING), input -> PONG)
+                    .build();
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.dopkit.actor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActorDispatcherTest {
+
+    @Test
+    void eachTurnProcessesAtMostThroughputMessages() {
+        List<Runnable> parked = new ArrayList<>();
+        CountingActor actor = new CountingActor(ActorMailboxConfig.create().throughput(4).executor(parked::add));
+        for (int i = 0; i < 10; i++) {
+            actor.tell(i);
+        }
+        assertEquals(1, parked.size());
+
+        parked.remove(0).run();
+        assertEquals(4, actor.count);
+        // 剩余消息让出线程后重新排队
+        assertEquals(1, parked.size());
+        parked.remove(0).run();
+        parked.remove(0).run();
+        assertEquals(10, actor.count);
+        assertTrue(parked.isEmpty());
+    }
+
+    @Test
+    void thousandsOfActorsShareASmallPool() throws Exception {
+        ActorDispatcher dispatcher = ActorDispatcher.create("test-actors", 4, 8);
+        try {
+            List<CountingActor> actors = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                actors.add(new CountingActor(ActorMailboxConfig.create().dispatcher(dispatcher)));
+            }
+            for (int round = 0; round < 20; round++) {
+                for (CountingActor actor : actors) {
+                    actor.tell(round);
+                }
+            }
+            List<CompletableFuture<Integer>> done = new ArrayList<>();
+            for (CountingActor actor : actors) {
+                done.add(actor.ask(-1));
+            }
+            CompletableFuture.allOf(done.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+            for (CountingActor actor : actors) {
+                assertEquals(21, actor.count);
+                assertFalse(actor.outOfOrder);
+            }
+            assertTrue(dispatcher.getStealCount() >= 0);
+            assertEquals(0, dispatcher.getQueueDepth());
+            assertEquals(4, dispatcher.getParallelism());
+        } finally {
+            dispatcher.shutdown();
+            assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void failuresOfTasksSubmittedFromWorkersReachUncaughtExceptionHandler() throws Exception {
+        ActorDispatcher dispatcher = ActorDispatcher.create("test-failures", 2, 8);
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        CompletableFuture<Throwable> reported = new CompletableFuture<>();
+        Thread.setDefaultUncaughtExceptionHandler((thread, error) -> reported.complete(error));
+        try {
+            // 在工作线程上提交，与Actor之间 tell 的路径相同
+            dispatcher.execute(() -> dispatcher.execute(() -> {
+                throw new IllegalStateException("boom");
+            }));
+            Throwable error = reported.get(10, TimeUnit.SECONDS);
+            assertEquals("boom", error.getMessage());
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ActorDispatcher.create("x", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> ActorDispatcher.create("x", 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> ActorMailboxConfig.create().throughput(0));
+    }
+
+    private static final class CountingActor extends AbstractActor<Integer> {
+        private final ActorMailboxConfig config;
+        private int count;
+        private int last = -1;
+        private boolean outOfOrder;
+
+        private CountingActor(ActorMailboxConfig config) {
+            this.config = config;
+        }
+
+        private Integer handle(Integer round) {
+            if (round >= 0) {
+                if (round != last + 1) {
+                    outOfOrder = true;
+                }
+                last = round;
+            }
+            return ++count;
+        }
+
+        @Override
+        protected ActorRoute<Integer> createActorRoute() {
+            return ActorRouteBuilder.<Integer>create()
+                    .matchByClass(Integer.class, this::handle)
+                    .build();
+        }
+
+        @Override
+        protected ActorMailboxConfig createMailboxConfig() {
+            return config;
+        }
+
+        @Override
+        protected Integer createErrorResult(String message) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dopkit.actor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActorExecutionModeTest {
+
+    @Test
+    void dispatcherModeIsAlwaysSupported() throws Exception {
+        assertTrue(ActorExecutionMode.DISPATCHER.isSupported());
+        assertEquals(ActorExecutionMode.VIRTUAL_THREAD.isSupported()
+                        ? ActorExecutionMode.VIRTUAL_THREAD : ActorExecutionMode.DISPATCHER,
+                ActorExecutionMode.bestAvailable());
+
+        ThreadActor actor = new ThreadActor(
+                ActorMailboxConfig.create().executionMode(ActorExecutionMode.DISPATCHER));
+        assertTrue(actor.ask("x").get(5, TimeUnit.SECONDS).startsWith("dopkit-actor-"));
+    }
+
+    @Test
+    void virtualThreadModeRunsOnVirtualThreadsOrIsRejected() throws Exception {
+        if (!ActorExecutionMode.VIRTUAL_THREAD.isSupported()) {
+            assertThrows(UnsupportedOperationException.class,
+                    () -> ActorMailboxConfig.create().executionMode(ActorExecutionMode.VIRTUAL_THREAD));
+            return;
+        }
+        ThreadActor actor = new ThreadActor(
+                ActorMailboxConfig.create().executionMode(ActorExecutionMode.VIRTUAL_THREAD));
+        actor.ask("x").get(5, TimeUnit.SECONDS);
+        assertEquals(Boolean.TRUE, Thread.class.getMethod("isVirtual").invoke(actor.lastThread));
+    }
+
+    private static final class ThreadActor extends AbstractActor<String> {
+        private final ActorMailboxConfig config;
+        private volatile Thread lastThread;
+
+        private ThreadActor(ActorMailboxConfig config) {
+            this.config = config;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            return ActorRouteBuilder.<String>create()
+                    .matchByClass(String.class, input -> {
+                        lastThread = Thread.currentThread();
+                        return lastThread.getName();
+                    })
+                    .build();
+        }
+
+        @Override
+        protected ActorMailboxConfig createMailboxConfig() {
+            return config;
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.dopkit.actor;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ActorHandlerAnnotationTest {
+
+    enum Op {
+        GREET,
+        COUNT
+    }
+
+    @Test
+    void annotatedMethodsAreBoundForClassKeyAndEnumDispatch() {
+        GreeterActor actor = new GreeterActor("hello");
+        assertEquals("hello bob", actor.call("bob"));
+        assertEquals("hello amy", actor.callByRouteKey("greet", "amy"));
+        assertEquals("hello joe", actor.callByEnum(Op.GREET, "joe"));
+        assertEquals("3", actor.callByRouteKey("count", 3));
+        assertEquals("7", actor.callByEnum(Op.COUNT, 7));
+        // byClass = false: Integer is not registered for class dispatch
+        assertEquals("error", actor.call(3));
+
+        assertEquals("hi bob", new GreeterActor("hi").call("bob"));
+    }
+
+    @Test
+    void scanIsCachedPerActorClass() {
+        List<AnnotatedHandlers.Binding> first = AnnotatedHandlers.of(GreeterActor.class, MethodHandles.lookup());
+        new GreeterActor("a").call("x");
+        new GreeterActor("b").call("y");
+        assertSame(first, AnnotatedHandlers.of(GreeterActor.class, null));
+        assertEquals(2, first.size());
+    }
+
+    @Test
+    void invalidDeclarationsFailAtRegistration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ActorRouteBuilder.<String>create().matchAnnotated(new TwoArgs(), MethodHandles.lookup()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ActorRouteBuilder.<String>create().matchAnnotated(new UnknownEnum(), MethodHandles.lookup()));
+        // without a lookup from the actor class, private members are not accessible
+        assertThrows(IllegalArgumentException.class,
+                () -> ActorRouteBuilder.<String>create().matchAnnotated(new PrivateHandler()));
+    }
+
+    private static final class GreeterActor extends AbstractActor<String> {
+        private final String greeting;
+
+        private GreeterActor(String greeting) {
+            this.greeting = greeting;
+        }
+
+        @ActorHandler(keys = "greet", enumType = Op.class, enums = "GREET")
+        private String greet(String name) {
+            return greeting + " " + name;
+        }
+
+        @ActorHandler(keys = "count", enumType = Op.class, enums = "COUNT", byClass = false)
+        private String count(Integer value) {
+            return String.valueOf(value);
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            return ActorRouteBuilder.<String>create()
+                    .matchAnnotated(this, MethodHandles.lookup())
+                    .build();
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error";
+        }
+    }
+
+    private static final class TwoArgs {
+        @ActorHandler(keys = "x")
+        String handle(String a, String b) {
+            return a + b;
+        }
+    }
+
+    private static final class UnknownEnum {
+        @ActorHandler(enumType = Op.class, enums = "MISSING")
+        String handle(String a) {
+            return a;
+        }
+    }
+
+    private static final class PrivateHandler {
+        @ActorHandler(keys = "x")
+        private String handle(String a) {
+            return a;
+        }
+    }
+}
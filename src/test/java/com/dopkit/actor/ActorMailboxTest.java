@@ -0,0 +1,160 @@
+package com.dopkit.actor;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActorMailboxTest {
+
+    enum Op {
+        ADD
+    }
+
+    @Test
+    void askCompletesOnTheMailboxThreadForEveryDispatchKind() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            CounterActor actor = new CounterActor(ActorMailboxConfig.create().executor(pool));
+            assertEquals("class:a", actor.ask("a").get(5, TimeUnit.SECONDS));
+            assertEquals("class:b", actor.askByRouteKey("add", "b").get(5, TimeUnit.SECONDS));
+            assertEquals("class:c", actor.askByEnum(Op.ADD, "c").get(5, TimeUnit.SECONDS));
+            assertEquals("command:x", actor.askByCommand("x", "d").get(5, TimeUnit.SECONDS));
+            assertEquals("error", actor.ask(1).get(5, TimeUnit.SECONDS));
+            assertNotEquals(Thread.currentThread(), actor.lastThread);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void messagesFromManyProducersAreProcessedOneAtATime() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        try {
+            CounterActor actor = new CounterActor(ActorMailboxConfig.create().capacity(1 << 16).executor(pool));
+            int perProducer = 5000;
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<Void>> sent = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                sent.add(CompletableFuture.runAsync(() -> {
+                    awaitQuietly(start);
+                    for (int i = 0; i < perProducer; i++) {
+                        actor.tell("m");
+                    }
+                }, producers));
+            }
+            start.countDown();
+            CompletableFuture.allOf(sent.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            // 邮箱按FIFO处理：最后一个 ask 完成时之前的 tell 都已处理
+            actor.ask("last").get(10, TimeUnit.SECONDS);
+
+            // count 是普通字段，只有在消息串行处理时才不会丢失更新
+            assertEquals(4 * perProducer + 1, actor.count);
+            assertFalse(actor.overlapped);
+        } finally {
+            producers.shutdownNow();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void fullMailboxRejectsTellAndFailsAsk() {
+        List<Runnable> parked = new ArrayList<>();
+        CounterActor actor = new CounterActor(ActorMailboxConfig.create().capacity(2).executor(parked::add));
+        actor.tell("a");
+        actor.tell("b");
+        assertThrows(RejectedExecutionException.class, () -> actor.tell("c"));
+        CompletableFuture<String> rejected = actor.ask("d");
+        assertTrue(rejected.isCompletedExceptionally());
+
+        // 只提交了一次，执行后两条消息都被处理
+        assertEquals(1, parked.size());
+        parked.get(0).run();
+        assertEquals(2, actor.count);
+    }
+
+    @Test
+    void handlerFailuresCompleteAskExceptionally() {
+        CounterActor actor = new CounterActor(ActorMailboxConfig.create().executor(Runnable::run));
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> actor.askByRouteKey("boom", "x").get());
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+
+        actor.tellByRouteKey("boom", "y");
+        assertEquals("y", actor.tellFailureInput);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CounterActor extends AbstractActor<String> {
+        private final ActorMailboxConfig config;
+        private int count;
+        private boolean running;
+        private boolean overlapped;
+        private Thread lastThread;
+        private Object tellFailureInput;
+
+        private CounterActor(ActorMailboxConfig config) {
+            this.config = config;
+        }
+
+        private String handle(String input) {
+            if (running) {
+                overlapped = true;
+            }
+            running = true;
+            count++;
+            lastThread = Thread.currentThread();
+            running = false;
+            return "class:" + input;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            return ActorRouteBuilder.<String>create()
+                    .match(String.class, Sets.newHashSet("add"), Sets.newHashSet(Op.ADD), this::handle)
+                    .matchByClassAndKey(Object.class, Sets.newHashSet("boom"), input -> {
+                        throw new IllegalStateException("boom");
+                    })
+                    .registerCommandTable(command -> (Op) null, type -> null, (command, input) -> "command:" + command)
+                    .build();
+        }
+
+        @Override
+        protected ActorMailboxConfig createMailboxConfig() {
+            return config;
+        }
+
+        @Override
+        protected void onTellFailure(Object input, Throwable error) {
+            tellFailureInput = input;
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.dopkit.actor;
+
+import com.dopkit.dispatch.DispatchEngine;
+import com.dopkit.dispatch.DispatchMetrics;
+import com.dopkit.dispatch.DispatchStrategyType;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActorMetricsTest {
+
+    enum Op {
+        ECHO
+    }
+
+    @Test
+    void countsStrategiesHandlersAndDefaults() {
+        MeteredActor actor = new MeteredActor(true);
+        assertEquals("echo:a", actor.call("a"));
+        assertEquals("echo:b", actor.callByRouteKey("echo", "b"));
+        assertEquals("echo:c", actor.callByEnum(Op.ECHO, "c"));
+        assertEquals("len:3", actor.call(3));
+        assertEquals("any-key:missing", actor.callByRouteKey("missing", "x"));
+        assertEquals("any:1.5", actor.call(1.5d));
+
+        DispatchMetrics.Snapshot snapshot = actor.route.getMetrics().snapshot();
+        assertEquals(3, snapshot.getStrategies().get(DispatchStrategyType.CLASS).getInvocations());
+        assertEquals(0, snapshot.getStrategies().get(DispatchStrategyType.CLASS).getNotHandled());
+        assertEquals(2, snapshot.getStrategies().get(DispatchStrategyType.ROUTE_KEY).getInvocations());
+        assertEquals(1, snapshot.getStrategies().get(DispatchStrategyType.ENUM).getInvocations());
+        assertEquals(3, snapshot.getStrategies().get(DispatchStrategyType.CLASS).getLatency().getCount());
+
+        // 同一个handler无论经由哪种分发方式命中，都计入同一个计数器
+        assertEquals(Long.valueOf(3), snapshot.getHandlerInvocations().get(String.class.getName()));
+        assertEquals(Long.valueOf(1), snapshot.getHandlerInvocations().get(Integer.class.getName()));
+        assertEquals(Long.valueOf(1), snapshot.getDefaultHandlerInvocations().get("matchAnyKey"));
+        assertEquals(Long.valueOf(1), snapshot.getDefaultHandlerInvocations().get("matchAny"));
+
+        Map<String, Long> exported = snapshot.toMap();
+        assertEquals(Long.valueOf(3), exported.get("strategy.CLASS.invocations"));
+        assertEquals(Long.valueOf(3), exported.get("handler.java.lang.String.invocations"));
+        assertEquals(Long.valueOf(1), exported.get("default.matchAnyKey.invocations"));
+        assertTrue(exported.containsKey("strategy.ROUTE_KEY.latency.p99.ns"));
+    }
+
+    @Test
+    void unhandledInputsAreCountedAsNotHandled() {
+        DispatchMetrics metrics = new DispatchMetrics();
+        ActorRoute<String> route = ActorRouteBuilder.<String>create()
+                .matchByClass(String.class, input -> input)
+                .enableMetrics(metrics)
+                .build();
+        assertEquals(DispatchEngine.NOT_HANDLED, route.getDispatchEngine().dispatchClass(42));
+
+        DispatchMetrics.StrategySnapshot classStats = metrics.snapshot().getStrategies().get(DispatchStrategyType.CLASS);
+        assertEquals(1, classStats.getInvocations());
+        assertEquals(1, classStats.getNotHandled());
+        assertFalse(metrics.snapshot().getHandlerInvocations().containsKey("java.lang.Integer"));
+    }
+
+    @Test
+    void metricsAreOffByDefault() {
+        MeteredActor actor = new MeteredActor(false);
+        assertEquals("echo:a", actor.call("a"));
+        assertNull(actor.route.getMetrics());
+    }
+
+    private static final class MeteredActor extends AbstractActor<String> {
+        private final boolean metrics;
+        private ActorRoute<String> route;
+
+        private MeteredActor(boolean metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            ActorRouteBuilder<String> builder = ActorRouteBuilder.<String>create()
+                    .match(String.class, Sets.newHashSet("echo"), Sets.newHashSet(Op.ECHO), input -> "echo:" + input)
+                    .matchByClass(Integer.class, input -> "len:" + input)
+                    .matchAnyKey((key, input) -> "any-key:" + key)
+                    .matchAny(input -> "any:" + input);
+            if (metrics) {
+                builder.enableMetrics();
+            }
+            route = builder.build();
+            return route;
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error:" + message;
+        }
+    }
+}
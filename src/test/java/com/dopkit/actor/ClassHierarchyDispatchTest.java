@@ -0,0 +1,59 @@
+package com.dopkit.actor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClassHierarchyDispatchTest {
+
+    @Test
+    void exactClassThenSuperclassThenInterfaceThenObject() {
+        HierarchyActor actor = new HierarchyActor(true);
+        assertEquals("exact:ArrayList", actor.call(new ArrayList<String>()));
+        assertEquals("superclass:AbstractList", actor.call(new LinkedList<String>() {
+        }));
+        assertEquals("interface:CharSequence", actor.call(new StringBuilder("sb")));
+        assertEquals("object:Integer", actor.call(42));
+        // memoized resolution gives the same answer on later calls
+        assertEquals("interface:CharSequence", actor.call(new StringBuilder("again")));
+    }
+
+    @Test
+    void exactLookupRemainsTheDefault() {
+        HierarchyActor actor = new HierarchyActor(false);
+        assertEquals("exact:ArrayList", actor.call(new ArrayList<String>()));
+        assertEquals("error:java.lang.StringBuilder", actor.call(new StringBuilder("sb")));
+    }
+
+    private static final class HierarchyActor extends AbstractActor<String> {
+        private final boolean resolveHierarchy;
+
+        private HierarchyActor(boolean resolveHierarchy) {
+            this.resolveHierarchy = resolveHierarchy;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            ActorRouteBuilder<String> builder = ActorRouteBuilder.<String>create()
+                    .matchByClass(ArrayList.class, list -> "exact:ArrayList")
+                    .matchByClass(AbstractList.class, list -> "superclass:AbstractList")
+                    .matchByClass(List.class, list -> "interface:List")
+                    .matchByClass(CharSequence.class, text -> "interface:CharSequence")
+                    .matchByClass(Object.class, value -> "object:" + value.getClass().getSimpleName());
+            if (resolveHierarchy) {
+                builder.resolveClassHierarchy();
+            }
+            return builder.build();
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error:" + message.substring(message.lastIndexOf(' ') + 1);
+        }
+    }
+}
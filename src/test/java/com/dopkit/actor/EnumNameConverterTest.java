@@ -0,0 +1,61 @@
+package com.dopkit.actor;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EnumNameConverterTest {
+
+    enum Op {
+        ADD,
+        REMOVE,
+        LIST
+    }
+
+    @Test
+    void exactNamesAliasesAndCaseFolding() {
+        OpActor exact = new OpActor(EnumNameConverter.of(Op.class).alias("rm", Op.REMOVE));
+        assertEquals("add:x", exact.callByRouteKey("ADD", "x"));
+        assertEquals("remove:x", exact.callByRouteKey("rm", "x"));
+        assertEquals("error:add", exact.callByRouteKey("add", "x"));
+        // constants without a handler are not expanded
+        assertEquals("error:LIST", exact.callByRouteKey("LIST", "x"));
+
+        OpActor folded = new OpActor(EnumNameConverter.of(Op.class).ignoreCase().alias("rm", Op.REMOVE));
+        assertEquals("add:x", folded.callByRouteKey("add", "x"));
+        assertEquals("add:x", folded.callByRouteKey("aDd", "x"));
+        assertEquals("remove:x", folded.callByRouteKey("RM", "x"));
+        assertEquals("error:unknown", folded.callByRouteKey("unknown", "x"));
+        assertEquals("error:null", folded.callByRouteKey(null, "x"));
+    }
+
+    @Test
+    void customConvertersStillRunAfterTheTableMisses() {
+        OpActor actor = new OpActor(EnumNameConverter.of(Op.class));
+        assertEquals("remove:x", actor.callByRouteKey("delete", "x"));
+    }
+
+    private static final class OpActor extends AbstractActor<String> {
+        private final EnumNameConverter<Op> converter;
+
+        private OpActor(EnumNameConverter<Op> converter) {
+            this.converter = converter;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            return ActorRouteBuilder.<String>create()
+                    .match(String.class, null, Sets.newHashSet(Op.ADD), input -> "add:" + input)
+                    .match(CharSequence.class, null, Sets.newHashSet(Op.REMOVE), input -> "remove:" + input)
+                    .registerEnumNames(converter)
+                    .registerEnumConverter(Op.class, key -> "delete".equals(key) ? Op.REMOVE : null)
+                    .build();
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error:" + message.substring(message.lastIndexOf(' ') + 1);
+        }
+    }
+}
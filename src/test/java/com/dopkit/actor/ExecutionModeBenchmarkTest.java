@@ -0,0 +1,85 @@
+package com.dopkit.actor;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 阻塞型handler在两种执行方式下的耗时对比
+ * 默认不运行：mvn test -Dtest=ExecutionModeBenchmarkTest -Ddopkit.benchmark=true（VIRTUAL_THREAD 需在JDK 21+上运行）
+ */
+@EnabledIfSystemProperty(named = "dopkit.benchmark", matches = "true")
+class ExecutionModeBenchmarkTest {
+
+    private static final int ACTORS = 10_000;
+    private static final long BLOCK_MILLIS = 20;
+
+    @Test
+    void blockingHandlers() throws Exception {
+        ActorDispatcher dispatcher = ActorDispatcher.create("bench", 64, ActorDispatcher.DEFAULT_THROUGHPUT);
+        try {
+            long dispatcherNanos = run(ActorMailboxConfig.create().dispatcher(dispatcher));
+            System.out.printf("DISPATCHER(64 threads): %d actors x %dms blocking -> %d ms%n",
+                    ACTORS, BLOCK_MILLIS, TimeUnit.NANOSECONDS.toMillis(dispatcherNanos));
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        Assumptions.assumeTrue(ActorExecutionMode.VIRTUAL_THREAD.isSupported(), "virtual threads need JDK 21+");
+        long virtualNanos = run(ActorMailboxConfig.create().executionMode(ActorExecutionMode.VIRTUAL_THREAD));
+        System.out.printf("VIRTUAL_THREAD:         %d actors x %dms blocking -> %d ms%n",
+                ACTORS, BLOCK_MILLIS, TimeUnit.NANOSECONDS.toMillis(virtualNanos));
+    }
+
+    private static long run(ActorMailboxConfig config) throws Exception {
+        List<BlockingActor> actors = new ArrayList<>();
+        for (int i = 0; i < ACTORS; i++) {
+            actors.add(new BlockingActor(config));
+        }
+        long start = System.nanoTime();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (BlockingActor actor : actors) {
+            results.add(actor.ask(1));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.MINUTES);
+        return System.nanoTime() - start;
+    }
+
+    private static final class BlockingActor extends AbstractActor<Integer> {
+        private final ActorMailboxConfig config;
+
+        private BlockingActor(ActorMailboxConfig config) {
+            this.config = config;
+        }
+
+        @Override
+        protected ActorRoute<Integer> createActorRoute() {
+            return ActorRouteBuilder.<Integer>create()
+                    .matchByClass(Integer.class, input -> {
+                        try {
+                            // 模拟一次JDBC/HTTP调用
+                            Thread.sleep(BLOCK_MILLIS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return input;
+                    })
+                    .build();
+        }
+
+        @Override
+        protected ActorMailboxConfig createMailboxConfig() {
+            return config;
+        }
+
+        @Override
+        protected Integer createErrorResult(String message) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.dopkit.actor;
+
+import com.dopkit.actor.example.ProtectedHandlerBase;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GeneratedActorRoutesTest {
+
+    enum Op {
+        GREET,
+        COUNT
+    }
+
+    @Test
+    void generatedRegistrarIsPickedUpByTheDefaultRoute() {
+        ActorRouteRegistrar<Object> registrar = ActorRouteRegistrars.find(Greeter.class);
+        assertNotNull(registrar);
+        assertEquals(GeneratedActorRoutesTest_Greeter_ActorRoutes.class, registrar.getClass());
+
+        Greeter actor = new Greeter();
+        assertEquals("hello bob", actor.call("bob"));
+        assertEquals("hello amy", actor.callByRouteKey("greet", "amy"));
+        assertEquals("hello joe", actor.callByEnum(Op.GREET, "joe"));
+        assertEquals(3L, actor.callByRouteKey("count", 3));
+        assertEquals(7L, actor.callByEnum(Op.COUNT, 7));
+        // byClass = false
+        assertEquals("error", actor.call(3));
+    }
+
+    @Test
+    void generatedRegistrarCarriesDeclaredPriorities() {
+        ActorRoute<Object> route = ActorRouteBuilder.create().matchAnnotated(new Greeter()).build();
+        RoutePriorities<Object> priorities = route.getPriorities();
+        assertNotNull(priorities);
+        assertEquals(MessagePriority.LOW,
+                priorities.of(new ActorMessage<>(ActorMessage.Kind.ROUTE_KEY, "count", 3, null)));
+        assertEquals(MessagePriority.NORMAL,
+                priorities.of(new ActorMessage<>(ActorMessage.Kind.ENUM, Op.GREET, "x", null)));
+    }
+
+    @Test
+    void actorsWithoutGeneratedCodeFallBackToReflection() {
+        assertNull(ActorRouteRegistrars.find(String.class));
+        assertEquals("com.dopkit.actor.GeneratedActorRoutesTest_Greeter_ActorRoutes",
+                ActorRouteRegistrars.registrarClassName(Greeter.class));
+    }
+
+    @Test
+    void inheritedHandlersUnreachableFromGeneratedCodeFallBackToReflection() {
+        assertNull(ActorRouteRegistrars.find(Inheriting.class));
+        Inheriting actor = new Inheriting();
+        assertEquals("echo a", actor.callByRouteKey("echo", "a"));
+        assertEquals("own b", actor.callByRouteKey("own", "b"));
+    }
+
+    static class Inheriting extends ProtectedHandlerBase {
+
+        @ActorHandler(keys = "own")
+        String own(String value) {
+            return "own " + value;
+        }
+
+        @Override
+        protected ActorRoute<Object> createActorRoute() {
+            return ActorRouteBuilder.create().matchAnnotated(this, MethodHandles.lookup()).build();
+        }
+    }
+
+    static class Greeter extends AbstractActor<Object> {
+
+        @ActorHandler(keys = "greet", enumType = Op.class, enums = "GREET")
+        String greet(String name) {
+            return "hello " + name;
+        }
+
+        @ActorHandler(keys = "count", enumType = Op.class, enums = "COUNT", byClass = false,
+                priority = MessagePriority.LOW)
+        long count(Integer value) {
+            return value;
+        }
+
+        @Override
+        protected Object createErrorResult(String message) {
+            return "error";
+        }
+    }
+}
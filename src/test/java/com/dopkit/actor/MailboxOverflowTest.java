@@ -0,0 +1,171 @@
+package com.dopkit.actor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailboxOverflowTest {
+
+    private final List<Runnable> parked = new ArrayList<>();
+
+    private RecordingActor actor(ActorMailboxConfig config) {
+        return new RecordingActor(config.capacity(2).executor(parked::add));
+    }
+
+    private void drain() {
+        while (!parked.isEmpty()) {
+            parked.remove(0).run();
+        }
+    }
+
+    @Test
+    void offerReportsFullMailboxWithoutApplyingThePolicy() {
+        RecordingActor actor = actor(ActorMailboxConfig.create().overflow(MailboxOverflowPolicy.DROP_OLDEST));
+        assertTrue(actor.offer(1));
+        assertTrue(actor.offerByRouteKey("k", 2));
+        assertFalse(actor.offer(3));
+        assertEquals(2, actor.getMailboxSize());
+        assertEquals(1, actor.getMailboxOverflowCount());
+        drain();
+        assertEquals(Arrays.asList(1, 2), actor.received);
+    }
+
+    @Test
+    void capacityIsEnforcedExactlyWithoutRounding() {
+        RecordingActor actor = new RecordingActor(ActorMailboxConfig.create().capacity(3).executor(parked::add));
+        assertTrue(actor.offer(1));
+        assertTrue(actor.offer(2));
+        assertTrue(actor.offer(3));
+        assertFalse(actor.offer(4));
+        assertEquals(3, actor.getMailboxSize());
+        drain();
+        assertTrue(actor.offer(5));
+        assertEquals(Arrays.asList(1, 2, 3), actor.received);
+    }
+
+    @Test
+    void failPolicyThrowsDedicatedException() {
+        RecordingActor actor = actor(ActorMailboxConfig.create());
+        actor.tell(1);
+        actor.tell(2);
+        MailboxFullException error = assertThrows(MailboxFullException.class, () -> actor.tell(3));
+        assertEquals(MailboxOverflowPolicy.FAIL, error.getPolicy());
+        assertFailedWithMailboxFull(actor.ask(4));
+    }
+
+    @Test
+    void dropNewestDiscardsTheIncomingMessage() {
+        RecordingActor actor = actor(ActorMailboxConfig.create().overflow(MailboxOverflowPolicy.DROP_NEWEST));
+        actor.tell(1);
+        actor.tell(2);
+        actor.tell(3);
+        assertFailedWithMailboxFull(actor.ask(4));
+        drain();
+        assertEquals(Arrays.asList(1, 2), actor.received);
+        assertEquals(2, actor.getMailboxOverflowCount());
+    }
+
+    @Test
+    void dropOldestEvictsTheHeadOfTheQueue() {
+        RecordingActor actor = actor(ActorMailboxConfig.create().overflow(MailboxOverflowPolicy.DROP_OLDEST));
+        CompletableFuture<Integer> evicted = actor.ask(1);
+        actor.tell(2);
+        actor.tell(3);
+        actor.tell(4);
+        assertFailedWithMailboxFull(evicted);
+        drain();
+        assertEquals(Arrays.asList(3, 4), actor.received);
+    }
+
+    @Test
+    void deadLetterPolicyHandsOverflowToTheHandler() {
+        List<DeadLetter> deadLetters = new ArrayList<>();
+        RecordingActor actor = actor(ActorMailboxConfig.create().deadLetters(deadLetters::add));
+        actor.tell(1);
+        actor.tell(2);
+        actor.tellByRouteKey("late", 3);
+        assertFailedWithMailboxFull(actor.ask(4));
+
+        assertEquals(2, deadLetters.size());
+        assertEquals("late", deadLetters.get(0).getRoute());
+        assertEquals(3, deadLetters.get(0).getInput());
+        assertEquals(actor, deadLetters.get(1).getActor());
+        assertThrows(IllegalArgumentException.class,
+                () -> ActorMailboxConfig.create().overflow(MailboxOverflowPolicy.DEAD_LETTER));
+    }
+
+    @Test
+    void blockPolicyTimesOut() {
+        RecordingActor actor = actor(ActorMailboxConfig.create()
+                .overflow(MailboxOverflowPolicy.BLOCK)
+                .blockTimeout(20, TimeUnit.MILLISECONDS));
+        actor.tell(1);
+        actor.tell(2);
+        MailboxFullException error = assertThrows(MailboxFullException.class, () -> actor.tell(3));
+        assertEquals(MailboxOverflowPolicy.BLOCK, error.getPolicy());
+    }
+
+    @Test
+    void blockPolicyWaitsForSpace() throws Exception {
+        RecordingActor actor = actor(ActorMailboxConfig.create().overflow(MailboxOverflowPolicy.BLOCK));
+        actor.tell(1);
+        actor.tell(2);
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> actor.tell(3));
+        Thread.sleep(20);
+        assertFalse(blocked.isDone());
+
+        // 消费者腾出空位后阻塞的生产者继续
+        parked.remove(0).run();
+        blocked.get(5, TimeUnit.SECONDS);
+        drain();
+        assertEquals(Arrays.asList(1, 2, 3), actor.received);
+    }
+
+    private static void assertFailedWithMailboxFull(CompletableFuture<?> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(MailboxFullException.class, error.getCause());
+    }
+
+    private static final class RecordingActor extends AbstractActor<Integer> {
+        private final ActorMailboxConfig config;
+        private final List<Integer> received = new ArrayList<>();
+
+        private RecordingActor(ActorMailboxConfig config) {
+            this.config = config;
+        }
+
+        private Integer record(Integer input) {
+            received.add(input);
+            return input;
+        }
+
+        @Override
+        protected ActorRoute<Integer> createActorRoute() {
+            return ActorRouteBuilder.<Integer>create()
+                    .matchByClass(Integer.class, this::record)
+                    .matchAnyKey((key, input) -> record((Integer) input))
+                    .build();
+        }
+
+        @Override
+        protected ActorMailboxConfig createMailboxConfig() {
+            return config;
+        }
+
+        @Override
+        protected Integer createErrorResult(String message) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.dopkit.actor;
+
+import com.dopkit.actor.command.UserCommandType;
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriorityMailboxTest {
+
+    enum Op {
+        DETAIL,
+        SCAN
+    }
+
+    private final List<Runnable> parked = new ArrayList<>();
+
+    private void drain() {
+        while (!parked.isEmpty()) {
+            parked.remove(0).run();
+        }
+    }
+
+    @Test
+    void strictPriorityDrainsHigherQueuesFirst() {
+        PriorityActor actor = new PriorityActor(ActorMailboxConfig.create().executor(parked::add));
+        actor.tell(new Scan("s1"));
+        actor.tellByRouteKey("scan", new Scan("s2"));
+        actor.tell("n1");
+        actor.tellByEnum(Op.DETAIL, new Detail("d1"));
+        actor.tellByRouteKey("detail", new Detail("d2"));
+        drain();
+        assertEquals(Arrays.asList("d1", "d2", "n1", "s1", "s2"), actor.received);
+    }
+
+    @Test
+    void weightedPriorityGivesEveryLevelAShare() {
+        PriorityActor actor = new PriorityActor(
+                ActorMailboxConfig.create().weightedPriority(1, 1, 1).executor(parked::add));
+        actor.tell(new Scan("s1"));
+        actor.tell(new Scan("s2"));
+        actor.tell(new Scan("s3"));
+        actor.tell("n1");
+        actor.tell(new Detail("d1"));
+        actor.tell(new Detail("d2"));
+        drain();
+        assertEquals(Arrays.asList("d1", "n1", "s1", "d2", "s2", "s3"), actor.received);
+    }
+
+    @Test
+    void capacityBoundsAllPriorityQueuesTogether() {
+        PriorityActor actor = new PriorityActor(ActorMailboxConfig.create().capacity(2)
+                .overflow(MailboxOverflowPolicy.DROP_OLDEST).executor(parked::add));
+        actor.tell(new Scan("s1"));
+        actor.tell("n1");
+        assertFalse(actor.offer(new Detail("d1")));
+        assertEquals(2, actor.getMailboxSize());
+        // the HIGH queue is empty, the oldest LOW message makes room
+        actor.tell(new Detail("d2"));
+        assertEquals(2, actor.getMailboxSize());
+        drain();
+        assertEquals(Arrays.asList("d2", "n1"), actor.received);
+    }
+
+    @Test
+    void commandsArePrioritizedByTheirEnum() {
+        List<String> received = new ArrayList<>();
+        CommandActor actor = new CommandActor(received, ActorMailboxConfig.create().executor(parked::add));
+        actor.tellByCommand("search_user", "bulk");
+        actor.tellByCommand("CREATE_USER", "normal");
+        actor.tellByCommand("get_user_detail", "interactive");
+        drain();
+        assertEquals(Arrays.asList("interactive", "normal", "bulk"), received);
+    }
+
+    @Test
+    void subclassInputUsesPriorityOfHierarchyHandler() {
+        ActorRoute<String> hierarchy = ActorRouteBuilder.<String>create()
+                .matchByClassAndKey(Number.class, Sets.newHashSet("n"), input -> "number")
+                .priority(MessagePriority.HIGH)
+                .resolveClassHierarchy()
+                .build();
+        assertEquals(MessagePriority.HIGH,
+                hierarchy.getPriorities().of(new ActorMessage<>(ActorMessage.Kind.CLASS, null, 42, null)));
+
+        ActorRoute<String> exact = ActorRouteBuilder.<String>create()
+                .matchByClassAndKey(Number.class, Sets.newHashSet("n"), input -> "number")
+                .priority(MessagePriority.HIGH)
+                .build();
+        assertEquals(MessagePriority.NORMAL,
+                exact.getPriorities().of(new ActorMessage<>(ActorMessage.Kind.CLASS, null, 42, null)));
+    }
+
+    @Test
+    void priorityLookupRunsNoUserConverter() {
+        AtomicInteger conversions = new AtomicInteger();
+        ActorRoute<String> route = ActorRouteBuilder.<String>create()
+                .match(Scan.class, Sets.newHashSet("scan"), Sets.newHashSet(Op.SCAN), input -> input.id)
+                .priority(MessagePriority.LOW)
+                .registerCommandTable(
+                        (String command) -> {
+                            conversions.incrementAndGet();
+                            return UserCommandType.valueOf(command.toUpperCase());
+                        },
+                        type -> input -> type.name(),
+                        (command, input) -> "unknown")
+                .commandPriority(MessagePriority.HIGH, UserCommandType.GET_USER_DETAIL)
+                .build();
+        RoutePriorities<String> priorities = route.getPriorities();
+        assertEquals(MessagePriority.HIGH,
+                priorities.of(new ActorMessage<>(ActorMessage.Kind.COMMAND, "get_user_detail", "x", null)));
+        assertEquals(MessagePriority.NORMAL,
+                priorities.of(new ActorMessage<>(ActorMessage.Kind.COMMAND, "create_user", "x", null)));
+        assertEquals(MessagePriority.LOW,
+                priorities.of(new ActorMessage<>(ActorMessage.Kind.ENUM, Op.SCAN, new Scan("s"), null)));
+        assertEquals(MessagePriority.NORMAL,
+                priorities.of(new ActorMessage<>(ActorMessage.Kind.ENUM, Op.DETAIL, new Scan("s"), null)));
+        assertEquals(MessagePriority.LOW,
+                priorities.of(new ActorMessage<>(ActorMessage.Kind.ROUTE_KEY, "scan", new Scan("s"), null)));
+        assertEquals(0, conversions.get());
+    }
+
+    @Test
+    void prioritiesSurviveMetricsInstrumentation() {
+        ActorRoute<String> route = ActorRouteBuilder.<String>create()
+                .matchByClassAndKey(String.class, Sets.newHashSet("k"), input -> input)
+                .priority(MessagePriority.HIGH)
+                .enableMetrics()
+                .build();
+        assertEquals(MessagePriority.HIGH,
+                route.getPriorities().of(new ActorMessage<>(ActorMessage.Kind.CLASS, null, "x", null)));
+        assertEquals(MessagePriority.HIGH,
+                route.getPriorities().of(new ActorMessage<>(ActorMessage.Kind.ROUTE_KEY, "k", "x", null)));
+        assertEquals(MessagePriority.NORMAL,
+                route.getPriorities().of(new ActorMessage<>(ActorMessage.Kind.ROUTE_KEY, "missing", "x", null)));
+    }
+
+    @Test
+    void priorityMustFollowARegistration() {
+        assertThrows(IllegalStateException.class,
+                () -> ActorRouteBuilder.<String>create().priority(MessagePriority.HIGH));
+        assertThrows(IllegalArgumentException.class,
+                () -> ActorMailboxConfig.create().weightedPriority(1, 0, 1));
+    }
+
+    private static final class Detail {
+        private final String id;
+
+        private Detail(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Scan {
+        private final String id;
+
+        private Scan(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final class PriorityActor extends AbstractActor<String> {
+        private final ActorMailboxConfig config;
+        private final List<String> received = new ArrayList<>();
+
+        private PriorityActor(ActorMailboxConfig config) {
+            this.config = config;
+        }
+
+        @ActorHandler(keys = "detail", enumType = Op.class, enums = "DETAIL", priority = MessagePriority.HIGH)
+        private String detail(Detail request) {
+            received.add(request.id);
+            return request.id;
+        }
+
+        private String normal(String request) {
+            received.add(request);
+            return request;
+        }
+
+        private String scan(Scan request) {
+            received.add(request.id);
+            return request.id;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            return ActorRouteBuilder.<String>create()
+                    .matchAnnotated(this, MethodHandles.lookup())
+                    .matchByClass(String.class, this::normal)
+                    .match(Scan.class, Sets.newHashSet("scan"), Sets.newHashSet(Op.SCAN), this::scan)
+                    .priority(MessagePriority.LOW)
+                    .build();
+        }
+
+        @Override
+        protected ActorMailboxConfig createMailboxConfig() {
+            return config;
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error";
+        }
+    }
+
+    private static final class CommandActor extends AbstractActor<String> {
+        private final List<String> received;
+        private final ActorMailboxConfig config;
+
+        private CommandActor(List<String> received, ActorMailboxConfig config) {
+            this.received = received;
+            this.config = config;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            return ActorRouteBuilder.<String>create()
+                    .registerCommandTable(
+                            EnumCommandTable.ofIgnoreCase(UserCommandType.class, type -> input -> {
+                                received.add((String) input);
+                                return type.name();
+                            }),
+                            (command, input) -> "unknown")
+                    .commandPriority(MessagePriority.HIGH, UserCommandType.GET_USER_DETAIL)
+                    .commandPriority(MessagePriority.LOW, UserCommandType.SEARCH_USER)
+                    .build();
+        }
+
+        @Override
+        protected ActorMailboxConfig createMailboxConfig() {
+            return config;
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error";
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.dopkit.actor;
+
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteKeyResolverTest {
+
+    enum Op {
+        ADD,
+        REMOVE
+    }
+
+    @Test
+    void directKeysWinOverEnumNamesAndUnknownKeysFallToDefaults() {
+        CountingActor actor = new CountingActor(16);
+        assertEquals("key:x", actor.callByRouteKey("ADD", "x"));
+        assertEquals("enum:x", actor.callByRouteKey("remove", "x"));
+        assertEquals("enum:x", actor.callByRouteKey("del", "x"));
+        assertEquals("default:bot-probe", actor.callByRouteKey("bot-probe", "x"));
+        assertEquals("default:null", actor.callByRouteKey(null, "x"));
+    }
+
+    @Test
+    void repeatedUnknownKeysSkipConvertersAndCacheStaysBounded() {
+        CountingActor actor = new CountingActor(4);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("default:bot-probe", actor.callByRouteKey("bot-probe", "x"));
+            assertEquals("enum:x", actor.callByRouteKey("del", "x"));
+        }
+        assertEquals(2, actor.converterCalls.get());
+
+        for (int i = 0; i < 50; i++) {
+            actor.callByRouteKey("probe-" + i, "x");
+        }
+        assertTrue(actor.route().getRouteKeyResolver().getResolvedCache().size() <= 4);
+    }
+
+    @Test
+    void frozenRouteKeysResolveLikeTheHashMap() {
+        CountingActor actor = new CountingActor(16, true);
+        assertEquals("key:x", actor.callByRouteKey("ADD", "x"));
+        assertEquals("enum:x", actor.callByRouteKey("REMOVE", "x"));
+        assertEquals("enum:x", actor.callByRouteKey("remove", "x"));
+        assertEquals("default:bot-probe", actor.callByRouteKey("bot-probe", "x"));
+    }
+
+    @Test
+    void cacheCanBeDisabled() {
+        CountingActor actor = new CountingActor(0);
+        for (int i = 0; i < 10; i++) {
+            actor.callByRouteKey("bot-probe", "x");
+        }
+        assertEquals(10, actor.converterCalls.get());
+    }
+
+    private static final class CountingActor extends AbstractActor<String> {
+        private final int cacheCapacity;
+        private final boolean freezeRouteKeys;
+        private final AtomicInteger converterCalls = new AtomicInteger();
+        private ActorRoute<String> route;
+
+        private CountingActor(int cacheCapacity) {
+            this(cacheCapacity, false);
+        }
+
+        private CountingActor(int cacheCapacity, boolean freezeRouteKeys) {
+            this.cacheCapacity = cacheCapacity;
+            this.freezeRouteKeys = freezeRouteKeys;
+        }
+
+        private ActorRoute<String> route() {
+            return route;
+        }
+
+        @Override
+        protected ActorRoute<String> createActorRoute() {
+            ActorRouteBuilder<String> builder = ActorRouteBuilder.<String>create()
+                    .matchByClassAndKey(Object.class, Sets.newHashSet("ADD"), input -> "key:" + input)
+                    .match(String.class, null, Sets.newHashSet(Op.ADD), input -> "enum-add:" + input)
+                    .match(CharSequence.class, null, Sets.newHashSet(Op.REMOVE), input -> "enum:" + input)
+                    .registerEnumNames(EnumNameConverter.of(Op.class).ignoreCase())
+                    .registerEnumConverter(Op.class, key -> {
+                        converterCalls.incrementAndGet();
+                        return "del".equals(key) ? Op.REMOVE : null;
+                    })
+                    .matchAnyKey((key, input) -> "default:" + key)
+                    .routeKeyCacheCapacity(cacheCapacity);
+            if (freezeRouteKeys) {
+                builder.freezeRouteKeys();
+            }
+            route = builder.build();
+            return route;
+        }
+
+        @Override
+        protected String createErrorResult(String message) {
+            return "error:" + message;
+        }
+    }
+}
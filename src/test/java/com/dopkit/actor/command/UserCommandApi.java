@@ -2,6 +2,7 @@ package com.dopkit.actor.command;
 
 import com.dopkit.actor.ActorRoute;
 import com.dopkit.actor.ActorRouteBuilder;
+import com.dopkit.actor.EnumCommandTable;
 import com.dopkit.actor.example.ApiEndpointBase;
 import com.dopkit.actor.example.Result;
 
@@ -24,17 +25,11 @@ public class UserCommandApi extends ApiEndpointBase {
         return ActorRouteBuilder.<Result<?>>create()
                 // 机制5: 注册CommandTable
                 .registerCommandTable(
-                        // 1. 字符串到枚举的转换器（支持大小写不敏感）
-                        commandStr -> {
-                            try {
-                                return UserCommandType.valueOf(commandStr.toUpperCase());
-                            } catch (IllegalArgumentException e) {
-                                return null; // 转换失败，触发兜底处理
-                            }
-                        },
-                        // 2. 从枚举中提取handler的函数
-                        UserCommandHandlerTable::getHandlerFunction,
-                        // 3. 兜底处理器（当命令无法识别或handler未实现时）
+                        // 1. 命令表：字符串到枚举（大小写不敏感）与枚举到handler，创建时一次展开
+                        EnumCommandTable.ofIgnoreCase(
+                                UserCommandType.class,
+                                UserCommandHandlerTable::getHandlerFunction),
+                        // 2. 兜底处理器（当命令无法识别或handler未实现时）
                         (command, input) -> Result.fail(
                                 "Command not supported or not implemented: " + command)
                 )
@@ -43,6 +43,17 @@ public enum UserCommandHandlerTable {
     // 注意：UPDATE_USER 和 DELETE_USER 未实现，用于测试兜底处理器
     ;
 
+    /**
+     * 按 UserCommandType.ordinal() 索引的handler数组，只在类初始化时构建一次
+     */
+    private static final UserCommandHandler[] HANDLERS_BY_TYPE = new UserCommandHandler[UserCommandType.values().length];
+
+    static {
+        for (UserCommandHandlerTable item : values()) {
+            HANDLERS_BY_TYPE[item.type.ordinal()] = item.handler;
+        }
+    }
+
     private final UserCommandType type;
     private final UserCommandHandler handler;
 
@@ -50,12 +61,7 @@ public enum UserCommandHandlerTable {
      * 检查是否包含指定类型的handler
      */
     public static boolean containsHandlerOfType(UserCommandType cmdType) {
-        for (UserCommandHandlerTable item : UserCommandHandlerTable.values()) {
-            if (item.type == cmdType) {
-                return true;
-            }
-        }
-        return false;
+        return getHandler(cmdType) != null;
     }
 
     /**
@@ -63,12 +69,7 @@ public enum UserCommandHandlerTable {
      * 如果未找到，返回null（由Actor的兜底处理器处理）
      */
     public static UserCommandHandler getHandler(UserCommandType cmdType) {
-        for (UserCommandHandlerTable item : UserCommandHandlerTable.values()) {
-            if (item.type == cmdType) {
-                return item.getHandler();
-            }
-        }
-        return null; // 未找到handler，触发兜底逻辑
+        return cmdType == null ? null : HANDLERS_BY_TYPE[cmdType.ordinal()]; // null 触发兜底逻辑
     }
 
     /**
@@ -0,0 +1,20 @@
+package com.dopkit.actor.example;
+
+import com.dopkit.actor.AbstractActor;
+import com.dopkit.actor.ActorHandler;
+
+/**
+ * 在另一个包中声明 protected handler 的父类，子类的生成代码无法直接调用它
+ */
+public abstract class ProtectedHandlerBase extends AbstractActor<Object> {
+
+    @ActorHandler(keys = "echo")
+    protected String echo(String value) {
+        return "echo " + value;
+    }
+
+    @Override
+    protected Object createErrorResult(String message) {
+        return "error";
+    }
+}
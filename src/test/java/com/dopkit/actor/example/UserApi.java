@@ -2,6 +2,7 @@ package com.dopkit.actor.example;
 
 import com.dopkit.actor.ActorRoute;
 import com.dopkit.actor.ActorRouteBuilder;
+import com.dopkit.actor.EnumNameConverter;
 import com.dopkit.example.User;
 import com.dopkit.example.UserService;
 import com.google.common.collect.Sets;
@@ -85,14 +86,8 @@ public class UserApi extends ApiEndpointBase {
                         Sets.newHashSet("createUser", "user.create"),
                         Sets.newHashSet(UserApiKey.CREATE),
                         this::createUser)
-                // 注册枚举转换器（机制4：支持字符串到枚举的自动转换）
-                .registerEnumConverter(UserApiKey.class, key -> {
-                    try {
-                        return UserApiKey.valueOf(key.toUpperCase());
-                    } catch (Exception e) {
-                        return null;
-                    }
-                })
+                // 注册枚举名称转换器（机制4：支持字符串到枚举的自动转换，忽略大小写）
+                .registerEnumNames(EnumNameConverter.of(UserApiKey.class).ignoreCase())
                 // 默认处理器
                 .matchAny(input -> Result.fail("Unsupported input type: "
                         + (input == null ? "null" : input.getClass().getName())))
@@ -15,6 +15,7 @@ import java.util.List;
  * 2. 支持函数式风格（通过 FuncStyleApiAdapter 包装静态字段）
  * 3. 支持 OOP 风格（直接 new 实现类）
  * 4. 注意路由顺序：通配路由（/user/{username}）必须放在最后，避免误匹配
+ *    （若改用 GenericPathActionRouter 的 ActionPathIndexMode.MOST_SPECIFIC 模式，则无需关心注册顺序）
  */
 public class UserApiAdapterRouter {
 
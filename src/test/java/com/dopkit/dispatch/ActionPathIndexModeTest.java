@@ -0,0 +1,122 @@
+package com.dopkit.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActionPathIndexModeTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "/users/search",
+            "/users/{id}",
+            "/users/{id}/orders/*",
+            "/users/**",
+            "/files/a*b?c",
+            "/files/**/raw",
+            "/a/**/c/**/e",
+            "/",
+            "/**",
+            "/users/{id}/orders/{orderId}");
+
+    private static final List<String> PATHS = Arrays.asList(
+            "/users/search", "/users/42", "/users/42/", "/users/42/orders/7", "/users",
+            "/files/axxbyc", "/files/x/y/raw", "/files/raw", "/a/c/e", "/a/b/c/d/e",
+            "/", "", "/unknown/deep/path", "/users/42/orders", "//", "/a//c/e", "/a/c/e/", "/users/search/");
+
+    @Test
+    void trieResolvesSameRuleAsLinearScan() {
+        DispatchEngine<String> linear = engine(ActionPathIndexMode.LINEAR, PATTERNS);
+        DispatchEngine<String> trie = engine(ActionPathIndexMode.TRIE, PATTERNS);
+        for (String path : PATHS) {
+            for (String action : Arrays.asList("GET", "DELETE")) {
+                assertEquals(dispatch(linear, path, action), dispatch(trie, path, action), path + " " + action);
+            }
+        }
+    }
+
+    @Test
+    void dfaResolvesSameRuleAsLinearScan() {
+        DispatchEngine<String> linear = engine(ActionPathIndexMode.LINEAR, PATTERNS);
+        DispatchEngine<String> dfa = engine(ActionPathIndexMode.DFA, PATTERNS);
+        for (String path : PATHS) {
+            for (String action : Arrays.asList("GET", "DELETE")) {
+                assertEquals(dispatch(linear, path, action), dispatch(dfa, path, action), path + " " + action);
+            }
+        }
+    }
+
+    @Test
+    void dfaReportsEveryAcceptingPatternInOneScan() {
+        AntPathMatcher matcher = new AntPathMatcher();
+        List<CompiledPathPattern> patterns = new ArrayList<>();
+        for (String pattern : PATTERNS) {
+            patterns.add(matcher.compile(pattern));
+        }
+        PathDfa dfa = new PathDfa(patterns, "/");
+        assertArrayEquals(new int[]{1, 3, 8}, dfa.match("/users/42"));
+        assertArrayEquals(new int[]{4, 8}, dfa.match("/files/axxbyc"));
+        assertArrayEquals(new int[]{7, 8}, dfa.match("/"));
+        assertArrayEquals(new int[]{8}, dfa.match(""));
+        // literal and ** only patterns need no confirming match, variables and globs do
+        assertTrue(dfa.decides(0));
+        assertTrue(dfa.decides(6));
+        assertFalse(dfa.decides(1));
+        assertFalse(dfa.decides(4));
+        int states = dfa.stateCount();
+        dfa.match("/users/42");
+        assertEquals(states, dfa.stateCount());
+    }
+
+    @Test
+    void mostSpecificPrefersPatternEndOverTrailingDoubleWildcard() {
+        List<String> wildcardFirst = Arrays.asList("/a/**", "/a/{x}/**", "/a", "/a/{x}");
+        List<String> wildcardLast = Arrays.asList("/a", "/a/{x}", "/a/**", "/a/{x}/**");
+        for (List<String> patterns : Arrays.asList(wildcardFirst, wildcardLast)) {
+            DispatchEngine<String> engine = engine(ActionPathIndexMode.MOST_SPECIFIC, patterns);
+            assertEquals("/a{}", dispatch(engine, "/a", "GET"), patterns.toString());
+            assertEquals("/a/{x}{x=b}", dispatch(engine, "/a/b", "GET"), patterns.toString());
+            assertEquals("/a/{x}/**{x=b}", dispatch(engine, "/a/b/c", "GET"), patterns.toString());
+        }
+    }
+
+    @Test
+    void trieSkipsRuleWhoseHandlerDeclines() {
+        List<PathActionMatchRule<String, ?>> rules = new ArrayList<>();
+        rules.add(new PathActionMatchRule<>("/users/{id}", ActionMatchMode.ALL, null, ctx -> null));
+        rules.add(new PathActionMatchRule<>("/users/**", ActionMatchMode.ALL, null, ctx -> "fallback"));
+        DispatchEngine<String> engine = new DispatchEngine<>();
+        engine.registerStrategy(DispatchStrategyConfig.forActionPathStrategy(
+                new DispatchStrategyConfig.ActionPathDispatchConfig<>(
+                        new AntPathMatcher(), rules, ActionPathIndexMode.TRIE)));
+        assertEquals("fallback", dispatch(engine, "/users/1", "GET"));
+    }
+
+    private DispatchEngine<String> engine(ActionPathIndexMode mode, List<String> patterns) {
+        List<PathActionMatchRule<String, ?>> rules = new ArrayList<>();
+        for (String pattern : patterns) {
+            rules.add(new PathActionMatchRule<>(
+                    pattern,
+                    pattern.startsWith("/users") ? ActionMatchMode.NOT_IN : ActionMatchMode.ALL,
+                    pattern.startsWith("/users") ? new HashSet<>(Arrays.asList("DELETE")) : null,
+                    ctx -> ctx.getPathMatchResult().getPattern() + ctx.getPathMatchResult().getVariables()));
+        }
+        DispatchEngine<String> engine = new DispatchEngine<>();
+        engine.registerStrategy(DispatchStrategyConfig.forActionPathStrategy(
+                new DispatchStrategyConfig.ActionPathDispatchConfig<>(new AntPathMatcher(), rules, mode)));
+        return engine;
+    }
+
+    private String dispatch(DispatchEngine<String> engine, String path, String action) {
+        DispatchResult<String> result = engine.dispatch(new ActionPathDispatchRequest<>(
+                new PathActionDispatchContext<>(null, null, action, path)));
+        return result.isHandled() ? result.getResult() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dopkit.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActionRuleBucketsTest {
+
+    enum HttpMethod {GET, POST, PUT, DELETE}
+
+    @Test
+    void enumActionsResolveByOrdinal() {
+        PathActionMatchRule<?, ?>[] rules = {
+                EnumActionPathRuleBuilder.<String, HttpMethod>create("/a").whitelist(HttpMethod.GET).handler(ctx -> "a").build(),
+                EnumActionPathRuleBuilder.<String, HttpMethod>create("/b").whitelist(HttpMethod.POST, HttpMethod.PUT)
+                        .handler(ctx -> "b").build(),
+                EnumActionPathRuleBuilder.<String, HttpMethod>create("/c").blacklist(HttpMethod.DELETE).handler(ctx -> "c").build(),
+                EnumActionPathRuleBuilder.<String, HttpMethod>create("/d").allowAll().handler(ctx -> "d").build()
+        };
+        assertTrue(rules[0].getActions().contains(HttpMethod.GET));
+
+        ActionRuleBuckets buckets = new ActionRuleBuckets(rules);
+        assertArrayEquals(new int[]{0, 2, 3}, buckets.candidates(HttpMethod.GET));
+        assertArrayEquals(new int[]{1, 2, 3}, buckets.candidates(HttpMethod.PUT));
+        assertArrayEquals(new int[]{3}, buckets.candidates(HttpMethod.DELETE));
+        assertArrayEquals(new int[]{2, 3}, buckets.candidates(null));
+        assertArrayEquals(new int[]{2, 3}, buckets.candidates("GET"));
+    }
+
+    @Test
+    void stringActionsResolveByHash() {
+        PathActionMatchRule<?, ?>[] rules = {
+                new PathActionMatchRule<>("/a", ActionMatchMode.IN, new HashSet<>(Arrays.asList("GET")), ctx -> "a"),
+                new PathActionMatchRule<>("/b", ActionMatchMode.NOT_IN, new HashSet<>(Arrays.asList("GET")), ctx -> "b"),
+                new PathActionMatchRule<>("/c", ActionMatchMode.ALL, null, ctx -> "c")
+        };
+        ActionRuleBuckets buckets = new ActionRuleBuckets(rules);
+        assertArrayEquals(new int[]{0, 2}, buckets.candidates("GET"));
+        assertArrayEquals(new int[]{1, 2}, buckets.candidates("POST"));
+        assertArrayEquals(new int[]{1, 2}, buckets.candidates(null));
+    }
+}
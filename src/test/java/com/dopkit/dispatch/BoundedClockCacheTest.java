@@ -0,0 +1,94 @@
+package com.dopkit.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedClockCacheTest {
+
+    @Test
+    void evictsUnreferencedEntriesFirst() {
+        BoundedClockCache<String, Integer> cache = new BoundedClockCache<>(3);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        assertEquals(1, cache.get("a"));
+
+        cache.put("d", 4);
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(4, cache.get("d"));
+
+        cache.put("d", 5);
+        assertEquals(5, cache.get("d"));
+        assertEquals(3, cache.size());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void clearKeepsCounters() {
+        BoundedClockCache<String, Integer> cache = new BoundedClockCache<>(2);
+        cache.put("a", 1);
+        cache.get("a");
+        cache.clear();
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedClockCache<String, Integer>(0));
+    }
+
+    @Test
+    void rejectedEntriesCountAsMisses() {
+        BoundedClockCache<String, Integer> cache = new BoundedClockCache<>(2);
+        cache.put("a", 1);
+        assertNull(cache.get("a", value -> value > 1));
+        assertEquals(1, cache.get("a", value -> value == 1));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void concurrentInsertsStayWithinCapacity() throws InterruptedException {
+        BoundedClockCache<Integer, Integer> cache = new BoundedClockCache<>(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    int key = (i * 4 + offset) % 64;
+                    if (cache.get(key) == null) {
+                        cache.put(key, key);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(cache.size() <= 16, "size " + cache.size());
+        for (int key = 0; key < 64; key++) {
+            Integer value = cache.get(key);
+            assertTrue(value == null || value == key);
+        }
+    }
+}
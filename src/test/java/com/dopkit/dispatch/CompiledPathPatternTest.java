@@ -0,0 +1,153 @@
+package com.dopkit.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledPathPatternTest {
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Test
+    void matchesLiteralGlobAndDoubleWildcardSegments() {
+        assertTrue(matcher.compile("/health").matches("/health"));
+        assertTrue(matcher.compile("/health").matches("/health/"));
+        assertFalse(matcher.compile("/health").matches("/healthz"));
+
+        CompiledPathPattern glob = matcher.compile("/files/a*b?c");
+        assertTrue(glob.matches("/files/axxbyc"));
+        assertFalse(glob.matches("/files/axxbc"));
+
+        CompiledPathPattern middle = matcher.compile("/a/**/c/**/e");
+        assertTrue(middle.matches("/a/c/e"));
+        assertTrue(middle.matches("/a/b/b/c/d/e"));
+        assertFalse(middle.matches("/a/b/d/e"));
+
+        assertTrue(matcher.compile("/users/**").matches("/users"));
+        assertFalse(matcher.compile("/users/*").matches("/users"));
+    }
+
+    @Test
+    void ruleKeepsOneCompiledPatternPerSeparator() {
+        PathActionMatchRule<String, String> rule =
+                new PathActionMatchRule<>("/a/{x}", ActionMatchMode.ALL, null, context -> "a");
+        AntPathMatcher dotted = new AntPathMatcher(".");
+        CompiledPathPattern slash = rule.compiledFor(matcher);
+        CompiledPathPattern dot = rule.compiledFor(dotted);
+        assertEquals(".", dot.getPathSeparator());
+        // alternating matchers must not recompile and replace each other's pattern
+        assertSame(slash, rule.compiledFor(matcher));
+        assertSame(dot, rule.compiledFor(dotted));
+        assertSame(slash, rule.getCompiledPattern());
+    }
+
+    @Test
+    void extractsVariablesInSinglePass() {
+        CompiledPathPattern pattern = matcher.compile("/api/tenant/{tenantId}/stage/{stage}/**");
+        assertEquals(2, pattern.getVariableCount());
+        assertEquals("tenantId", pattern.getVariableName(0));
+
+        PathMatchResult result = pattern.matchAndExtract("/api/tenant/acme/stage/dev/ws/connect");
+        assertNotNull(result);
+        assertEquals("acme", result.getVariables().get("tenantId"));
+        assertEquals("dev", result.getVariables().get("stage"));
+        assertEquals("/api/tenant/{tenantId}/stage/{stage}/**", result.getPattern());
+
+        assertNull(pattern.matchAndExtract("/api/tenant/acme"));
+    }
+
+    @Test
+    void exposesVariablesBySlotAndAsMapView() {
+        PathMatchResult result = matcher.compile("/users/{id}/posts/{postId}").matchAndExtract("/users/7/posts/99");
+        assertNotNull(result);
+        assertEquals(2, result.getVariableCount());
+        assertEquals("postId", result.getVariableName(1));
+        assertEquals("7", result.getVariable(0));
+        assertEquals("99", result.getVariable("postId"));
+        assertNull(result.getVariable("missing"));
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("id", "7");
+        expected.put("postId", "99");
+        assertEquals(expected, result.getVariables());
+        assertThrows(UnsupportedOperationException.class, () -> result.getVariables().put("id", "8"));
+
+        PathMatchResult literal = matcher.compile("/health").matchAndExtract("/health");
+        assertNotNull(literal);
+        assertEquals(0, literal.getVariableCount());
+        assertTrue(literal.getVariables().isEmpty());
+
+        PathMatchResult fromMap = new PathMatchResult("/p", "/p", expected);
+        assertEquals("99", fromMap.getVariable("postId"));
+        assertEquals(expected, fromMap.getVariables());
+    }
+
+    @Test
+    void typedVariablesRejectNonConformingSegments() {
+        CompiledPathPattern typed = matcher.compile("/orders/{id:long}/items/{n:int}");
+        assertNull(typed.matchAndExtract("/orders/abc/items/1"));
+        assertNull(typed.matchAndExtract("/orders/1/items/2147483648"));
+        assertFalse(typed.matches("/orders/9223372036854775808/items/1"));
+
+        PathMatchResult result = typed.matchAndExtract("/orders/-9223372036854775808/items/+42");
+        assertNotNull(result);
+        assertEquals(Long.MIN_VALUE, result.getLong("id"));
+        assertEquals(42, result.getInt("n"));
+        assertEquals("+42", result.getVariable("n"));
+        assertThrows(IllegalArgumentException.class, () -> result.getLong("missing"));
+
+        CompiledPathPattern uuid = matcher.compile("/sessions/{key:uuid}");
+        UUID key = UUID.randomUUID();
+        assertEquals(key, uuid.matchAndExtract("/sessions/" + key).getUuid("key"));
+        assertEquals(key, uuid.matchAndExtract("/sessions/" + key.toString().toUpperCase()).getUuid("key"));
+        assertFalse(uuid.matches("/sessions/not-a-uuid"));
+
+        CompiledPathPattern regex = matcher.compile("/user/{name:[a-z]+}");
+        assertEquals("bob", regex.matchAndExtract("/user/bob").getVariable("name"));
+        assertFalse(regex.matches("/user/Bob1"));
+
+        assertEquals(7L, matcher.compile("/plain/{id}").matchAndExtract("/plain/7").getLong("id"));
+        assertTrue(CompiledPathPattern.compareSpecificity(typed, matcher.compile("/orders/{id}/items/{n}")) < 0);
+    }
+
+    @Test
+    void walksCharSequenceWithoutTokenizing() {
+        CompiledPathPattern pattern = matcher.compile("/a/**/{id}/x*");
+        assertTrue(pattern.matches(new StringBuilder("/a/b/c/7/xyz/")));
+        assertFalse(pattern.matches(new StringBuilder("/a/7")));
+
+        // empty segments behave exactly like the tokenizer: "/a//b" has an empty middle segment
+        assertTrue(matcher.compile("/a/{empty}/b").matches("/a//b"));
+        assertTrue(matcher.compile("/").matches("/"));
+        assertFalse(matcher.compile("/").matches(""));
+        assertTrue(matcher.compile("/**").matches(""));
+
+        AntPathMatcher doubleColon = new AntPathMatcher("::");
+        PathMatchResult result = doubleColon.matchAndExtract("::svc::{method}", "::svc::ping::");
+        assertNotNull(result);
+        assertEquals("ping", result.getVariables().get("method"));
+    }
+
+    @Test
+    void honoursCustomSeparator() {
+        AntPathMatcher dotted = new AntPathMatcher(".");
+        PathMatchResult result = dotted.matchAndExtract("order.{id}.*", "order.42.paid");
+        assertNotNull(result);
+        assertEquals("42", result.getVariables().get("id"));
+
+        PathActionMatchRule<String, Void> rule = new PathActionMatchRule<>(
+                "order.{id}", ActionMatchMode.ALL, null, ctx -> ctx.getPathMatchResult().getVariables().get("id"));
+        assertEquals("7", rule.tryHandle(dotted, new PathActionDispatchContext<>(null, null, null, "order.7")));
+        assertNull(rule.tryHandle(matcher, new PathActionDispatchContext<>(null, null, null, "order.7")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.dopkit.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class DispatchStrategyTest {
+
+    @Test
+    void customStrategyIsSelectedByRequestClass() {
+        DispatchEngine<String> engine = new DispatchEngine<>();
+        engine.registerStrategy(TenantRequest.class,
+                request -> "acme".equals(request.getTenantId())
+                        ? DispatchResult.handled("tenant:" + request.getPayload())
+                        : DispatchResult.notHandled());
+
+        assertEquals("tenant:order", engine.dispatch(new TenantRequest("acme", "order")).getResult());
+        assertFalse(engine.dispatch(new TenantRequest("other", "order")).isHandled());
+        assertFalse(engine.dispatch(new OtherCustomRequest()).isHandled());
+    }
+
+    @Test
+    void builtInStrategiesAndCustomStrategiesCoexist() {
+        DispatchEngine<String> engine = new DispatchEngine<>();
+        engine.registerStrategy(DispatchStrategyConfig.forRouteKeyStrategy(
+                new DispatchStrategyConfig.RouteKeyDispatchConfig<>(
+                        Collections.singletonMap("ping", input -> "pong:" + input), null, null)));
+        engine.registerStrategy(TenantRequest.class, request -> DispatchResult.handled("tenant"));
+
+        assertEquals("pong:1", engine.dispatch(RouteKeyDispatchRequest.<String>direct("ping", 1)).getResult());
+        assertEquals("tenant", engine.dispatch(new TenantRequest("acme", "x")).getResult());
+        assertFalse(engine.dispatch(new ClassDispatchRequest<>("unregistered")).isHandled());
+    }
+
+    private static final class TenantRequest extends DispatchRequest<String> {
+        private final String tenantId;
+        private final String payload;
+
+        private TenantRequest(String tenantId, String payload) {
+            super(DispatchStrategyType.CUSTOM);
+            this.tenantId = tenantId;
+            this.payload = payload;
+        }
+
+        String getTenantId() {
+            return tenantId;
+        }
+
+        String getPayload() {
+            return payload;
+        }
+    }
+
+    private static final class OtherCustomRequest extends DispatchRequest<String> {
+        private OtherCustomRequest() {
+            super(DispatchStrategyType.CUSTOM);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.dopkit.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnumHandlerTableTest {
+
+    enum Shape {
+        CIRCLE {
+            @Override
+            int corners() {
+                return 0;
+            }
+        },
+        SQUARE;
+
+        int corners() {
+            return 4;
+        }
+    }
+
+    @Test
+    void resolvesPerEnumClassByOrdinal() {
+        Map<Enum<?>, Function<Object, String>> handlers = new HashMap<>();
+        handlers.put(Shape.CIRCLE, input -> "circle");
+        handlers.put(TimeUnit.SECONDS, input -> "seconds");
+        EnumHandlerTable<String> table = EnumHandlerTable.of(handlers);
+
+        // constant-specific class bodies are resolved through the declaring enum class
+        assertEquals("circle", table.get(Shape.CIRCLE).apply(null));
+        assertEquals("seconds", table.get(TimeUnit.SECONDS).apply(null));
+        assertNull(table.get(Shape.SQUARE));
+        assertNull(table.get(TimeUnit.DAYS));
+        assertNull(table.get(DispatchStrategyType.CLASS));
+        assertNull(table.get(null));
+        assertTrue(EnumHandlerTable.<String>of(new HashMap<>()).isEmpty());
+    }
+}
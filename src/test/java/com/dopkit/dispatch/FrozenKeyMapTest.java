@@ -0,0 +1,52 @@
+package com.dopkit.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrozenKeyMapTest {
+
+    @Test
+    void everyKeyResolvesToItsOwnSlot() {
+        Map<String, Integer> source = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            source.put("rpc.Service" + (i % 97) + ".method" + i, i);
+        }
+        // distinct keys with identical String.hashCode values
+        source.put("Aa", -1);
+        source.put("BB", -2);
+        source.put("AaAa", -3);
+        source.put("BBBB", -4);
+        source.put("AaBB", -5);
+
+        FrozenKeyMap<Integer> frozen = FrozenKeyMap.copyOf(source);
+        assertEquals(source.size(), frozen.size());
+        for (Map.Entry<String, Integer> entry : source.entrySet()) {
+            assertEquals(entry.getValue(), frozen.get(entry.getKey()), entry.getKey());
+        }
+        assertEquals(source, frozen);
+        assertNull(frozen.get("rpc.Service0.method5000"));
+        assertNull(frozen.get(""));
+        assertNull(frozen.get(null));
+        assertFalse(frozen.containsKey(42));
+        assertTrue(frozen.containsKey("BB"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put("x", 1));
+    }
+
+    @Test
+    void emptyAndInvalidSources() {
+        FrozenKeyMap<String> empty = FrozenKeyMap.copyOf(Collections.emptyMap());
+        assertTrue(empty.isEmpty());
+        assertNull(empty.get("missing"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FrozenKeyMap.copyOf(Collections.singletonMap("key", null)));
+    }
+}
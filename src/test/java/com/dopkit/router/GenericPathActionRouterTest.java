@@ -1,16 +1,29 @@
 package com.dopkit.router;
 
 import com.dopkit.dispatch.ActionMatchMode;
+import com.dopkit.dispatch.ActionPathIndexMode;
+import com.dopkit.dispatch.ActionPathLookupCache;
+import com.dopkit.dispatch.AntPathMatcher;
 import com.dopkit.dispatch.PathMatchResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class GenericPathActionRouterTest {
 
@@ -57,6 +70,95 @@ class GenericPathActionRouterTest {
                 router.register("/users", handler("noop"), ActionMatchMode.IN, null));
     }
 
+    @Test
+    void mostSpecificModeIgnoresRegistrationOrder() {
+        GenericPathActionRouter<String, TestRequest, String, String> specific =
+                new GenericPathActionRouter<>(TestRequest::getPath, new AntPathMatcher(), ActionPathIndexMode.MOST_SPECIFIC);
+        specific.registerPathAllActions("/**", handler("catch-all"));
+        specific.registerPathAllActions("/user/*", handler("glob"));
+        specific.registerPathAllActions("/user/{username}", handler("by-name"));
+        specific.registerPathAllActions("/user/search", handler("search"));
+        specific.registerPathAllActions("/user/**", handler("user-tree"));
+
+        assertEquals("search", specific.dispatch("rt", new TestRequest("/user/search"), "GET"));
+        assertEquals("by-name", specific.dispatch("rt", new TestRequest("/user/bob"), "GET"));
+        assertEquals("user-tree", specific.dispatch("rt", new TestRequest("/user/bob/orders"), "GET"));
+        assertEquals("catch-all", specific.dispatch("rt", new TestRequest("/orders"), "GET"));
+    }
+
+    @Test
+    void lookupCacheServesRepeatedPathsAndInvalidatesOnRegister() {
+        router.enableLookupCache(16);
+        router.registerPathInActions("/users/{id}", (rt, req, match) -> "user:" + match.getVariable("id"), setOf("GET"));
+        router.registerPathAllActions("/users/**", (rt, req, match) -> null);
+        router.registerPathAllActions("/users/*", handler("fallback"));
+
+        assertEquals("user:7", router.dispatch("rt", new TestRequest("/users/7"), "GET"));
+        assertEquals("user:7", router.dispatch("rt", new TestRequest("/users/7"), "GET"));
+        // first accepting rule declines, the rules after it are still probed
+        assertEquals("fallback", router.dispatch("rt", new TestRequest("/users/7"), "POST"));
+        assertEquals("fallback", router.dispatch("rt", new TestRequest("/users/7"), "POST"));
+        assertNull(router.dispatch("rt", new TestRequest("/orders"), "GET"));
+        assertNull(router.dispatch("rt", new TestRequest("/orders"), "GET"));
+
+        ActionPathLookupCache cache = router.getLookupCache();
+        assertEquals(3, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.size());
+
+        router.registerPathAllActions("/orders", handler("orders"));
+        assertEquals(0, cache.size());
+        assertEquals("orders", router.dispatch("rt", new TestRequest("/orders"), "GET"));
+    }
+
+    @Test
+    void registerAllAndUnregisterPublishWholeSnapshots() {
+        router.registerAll(Arrays.asList(
+                PathActionRoute.pathAllAction("/a", handler("a")),
+                PathActionRoute.pathAllAction("/b", handler("b")),
+                PathActionRoute.pathAllAction("/b", handler("b2"))));
+        assertEquals(3, router.getRegistrationCount());
+        assertEquals("b", router.dispatch("rt", new TestRequest("/b"), "GET"));
+
+        assertTrue(router.unregister("/b"));
+        assertFalse(router.unregister("/b"));
+        assertEquals(1, router.getRegistrationCount());
+        assertNull(router.dispatch("rt", new TestRequest("/b"), "GET"));
+        assertEquals("a", router.dispatch("rt", new TestRequest("/a"), "GET"));
+    }
+
+    @Test
+    void dispatchRunsConcurrentlyWithRegistration() throws Exception {
+        router.registerPathAllActions("/stable", handler("stable"));
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                results.add(readers.submit(() -> {
+                    int misses = 0;
+                    while (writing.get()) {
+                        if (!"stable".equals(router.dispatch("rt", new TestRequest("/stable"), "GET"))) {
+                            misses++;
+                        }
+                    }
+                    return misses;
+                }));
+            }
+            for (int i = 0; i < 200; i++) {
+                router.registerPathAllActions("/dynamic/" + i + "/**", handler("dynamic"));
+            }
+        } finally {
+            writing.set(false);
+            readers.shutdown();
+        }
+        for (Future<Integer> result : results) {
+            assertEquals(0, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(201, router.getRegistrationCount());
+        assertEquals("dynamic", router.dispatch("rt", new TestRequest("/dynamic/199/x"), "GET"));
+    }
+
     private ComponentHandler<String, TestRequest, PathMatchResult, String> handler(String value) {
         return (runtime, request, matchResult) -> value;
     }